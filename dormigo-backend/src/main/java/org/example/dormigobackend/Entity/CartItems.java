@@ -20,7 +20,9 @@ import java.time.LocalDateTime;
 public class CartItems {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /*Pooled sequence: ids come 50 at a time, so the inserts can be batched*/
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -3,6 +3,8 @@ package org.example.dormigobackend.Entity;
 import io.micrometer.core.annotation.Counted;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -0,0 +1,52 @@
+package org.example.dormigobackend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/*
+ * MockPaymentService's ledger row: one per payment intent, shaped like Stripe's
+ * PaymentIntent. Status changes go through MockPaymentIntentRepository's guarded
+ * updates only; the version is null until the row is first saved, which is how
+ * Spring Data tells the insert apart without reading the id back first.
+ * */
+@Entity
+@Table(name = "mock_payment_intent")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MockPaymentIntent {
+
+    public static final String REQUIRES_PAYMENT_METHOD = "requires_payment_method";
+    public static final String REQUIRES_CAPTURE = "requires_capture";
+    public static final String SUCCEEDED = "succeeded";
+    public static final String CANCELED = "canceled";
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(nullable = false)
+    private Boolean captured;
+
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -24,7 +24,9 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /*Pooled sequence: ids come 50 at a time, so the inserts can be batched*/
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", unique = true, nullable = false)
@@ -47,23 +49,25 @@ public class Order {
     @Column(name = "stripe_payment_status", nullable = false)
     private String stripePaymentStatus;
 
+    /*Failed capture drains (PaymentCaptureQueue); capture_failed once it reaches payment.capture.max-attempts*/
+    @Column(name = "capture_attempts", nullable = false)
+    @Builder.Default
+    private int captureAttempts = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
     private OrderStatus orderStatus = OrderStatus.PENDING_PAYMENT;
 
-    @Column(name = "meeting_location", nullable = false, length = 500)
+    @Column(name = "meeting_location", length = 500)
     private String meetingLocation;
 
     @Column(name = "meeting_time")
     private LocalDateTime meetingTime;
 
-    @Column(name = "meeting_notes", nullable = false, length = 2000)
+    @Column(name = "meeting_notes", length = 2000)
     private String meetingNotes;
 
-    @Column(name = "otp_code")
-    private String otpCode;
-
     @Column(name = "otp_generated_at")
     private LocalDateTime otpGeneratedAt;
 
@@ -96,7 +100,7 @@ public class Order {
     }
 
     public boolean otpValid(){
-        return (otpCode != null && otpExpiresAt != null &&
+        return (otpGeneratedAt != null && otpExpiresAt != null &&
                 LocalDateTime.now().isBefore(otpExpiresAt));
     }
 
@@ -3,6 +3,8 @@ package org.example.dormigobackend.Entity;
 import org.example.dormigobackend.Enums.ProductCondition;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -61,6 +63,7 @@ public class Product {
     private Boolean isAvailable = true;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-images")
     @Builder.Default
     private List<ProductImage> productImages = new ArrayList<>();
 
@@ -2,6 +2,8 @@ package org.example.dormigobackend.Entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Table(name = "product_image")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-image")
 @Getter
 @Setter
 public class ProductImage {
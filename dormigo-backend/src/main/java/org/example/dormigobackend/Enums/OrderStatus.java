@@ -1,5 +1,12 @@
 package org.example.dormigobackend.Enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/*Declared in lifecycle order: every transition moves to a later constant (or stays),
+ * which SellerStatsService relies on*/
 public enum OrderStatus {
     PENDING_PAYMENT,
     PAYMENT_COMPLETED,
@@ -8,5 +15,28 @@ public enum OrderStatus {
     OTP_GENERATED,
     COMPLETED,
     CANCELLED,
-    DISPUTED
+    DISPUTED;
+
+    /*
+     * Transition table: status -> statuses it may move to.
+     * Arranging a meeting issues the OTP in the same write, so the
+     * paid states may jump straight to OTP_GENERATED; arranging it again
+     * (OTP_GENERATED -> OTP_GENERATED) issues a fresh OTP.
+     * */
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING_PAYMENT, EnumSet.of(PAYMENT_COMPLETED, CANCELLED));
+        TRANSITIONS.put(PAYMENT_COMPLETED, EnumSet.of(SELLER_NOTIFIED, MEETING_ARRANGED, OTP_GENERATED, CANCELLED));
+        TRANSITIONS.put(SELLER_NOTIFIED, EnumSet.of(MEETING_ARRANGED, OTP_GENERATED, CANCELLED));
+        TRANSITIONS.put(MEETING_ARRANGED, EnumSet.of(OTP_GENERATED, CANCELLED));
+        TRANSITIONS.put(OTP_GENERATED, EnumSet.of(OTP_GENERATED, COMPLETED, CANCELLED));
+        TRANSITIONS.put(COMPLETED, EnumSet.of(DISPUTED));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(DISPUTED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
 }
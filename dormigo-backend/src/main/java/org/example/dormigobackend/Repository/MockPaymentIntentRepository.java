@@ -0,0 +1,29 @@
+package org.example.dormigobackend.Repository;
+
+import org.example.dormigobackend.Entity.MockPaymentIntent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface MockPaymentIntentRepository extends JpaRepository<MockPaymentIntent, String> {
+
+    /*
+     * Guarded transition (compare-and-set), as for orders:
+     * 0 rows updated means the intent is missing or not in one of the from states.
+     * */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MockPaymentIntent p SET p.status = :to, p.captured = :captured, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status IN :from")
+    int transition(@Param("id") String id,
+                   @Param("from") Collection<String> from,
+                   @Param("to") String to,
+                   @Param("captured") boolean captured,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,6 +1,7 @@
 package org.example.dormigobackend.Repository;
 
 import org.example.dormigobackend.Entity.OrderItem;
+import org.example.dormigobackend.Enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,7 +9,86 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem,Integer> {
 
+    /*Seller stats projections*/
+
+    interface ItemSale {
+        Long getSellerId();
+        Long getProductId();
+        Integer getQuantity();
+        BigDecimal getSubTotal();
+    }
+
+    interface StatusCount {
+        OrderStatus getStatus();
+        Long getOrderCount();
+    }
+
+    interface ProductSale {
+        Long getProductId();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+
+    /*Order list lines: the items of a page of orders, for OrderService's summaries*/
+
+    interface OrderLine {
+        Long getOrderId();
+        Long getId();
+        Long getProductId();
+        String getProductTitle();
+        Long getSellerId();
+        String getSellerFirstName();
+        String getSellerLastName();
+        Integer getQuantity();
+        BigDecimal getPriceAtPurchase();
+        BigDecimal getSubTotal();
+    }
+
+    @Query("SELECT oi.order.id AS orderId, oi.id AS id, p.id AS productId, p.title AS productTitle, " +
+            "s.id AS sellerId, s.firstName AS sellerFirstName, s.lastName AS sellerLastName, " +
+            "oi.quantity AS quantity, oi.priceAtPurchase AS priceAtPurchase, oi.subTotal AS subTotal " +
+            "FROM OrderItem oi JOIN oi.product p JOIN oi.seller s " +
+            "WHERE oi.order.id IN :orderIds " +
+            "ORDER BY oi.id")
+    List<OrderLine> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT oi.seller.id AS sellerId, oi.product.id AS productId, " +
+            "oi.quantity AS quantity, oi.subTotal AS subTotal " +
+            "FROM OrderItem oi WHERE oi.order.id = :orderId")
+    List<ItemSale> findSalesByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT o.orderStatus AS status, COUNT(DISTINCT o.id) AS orderCount " +
+            "FROM OrderItem oi JOIN oi.order o " +
+            "WHERE oi.seller.id = :sellerId " +
+            "GROUP BY o.orderStatus")
+    List<StatusCount> countOrdersByStatusForSeller(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT oi.product.id AS productId, SUM(oi.quantity) AS units, SUM(oi.subTotal) AS revenue " +
+            "FROM OrderItem oi " +
+            "WHERE oi.seller.id = :sellerId AND oi.order.orderStatus IN :statuses " +
+            "GROUP BY oi.product.id")
+    List<ProductSale> sumProductSalesForSeller(@Param("sellerId") Long sellerId,
+                                               @Param("statuses") Collection<OrderStatus> statuses);
+
+    interface RecentOrder {
+        Long getOrderId();
+        OrderStatus getStatus();
+    }
+
+    @Query("SELECT DISTINCT o.id AS orderId, o.orderStatus AS status " +
+            "FROM OrderItem oi JOIN oi.order o " +
+            "WHERE oi.seller.id = :sellerId AND o.updatedAt >= :since")
+    List<RecentOrder> findRecentOrdersForSeller(@Param("sellerId") Long sellerId,
+                                                @Param("since") LocalDateTime since);
+
+    @Query("SELECT DISTINCT oi.seller.id FROM OrderItem oi")
+    List<Long> findDistinctSellerIds();
 }
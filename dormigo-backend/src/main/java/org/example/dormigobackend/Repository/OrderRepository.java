@@ -1,20 +1,154 @@
 package org.example.dormigobackend.Repository;
 
 import org.example.dormigobackend.Entity.Order;
+import org.example.dormigobackend.Enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order,Long> {
 
-    Page<Order> findByBuyerId(Long buyerId, Pageable pageable);
+    Optional<Order> findByStripePaymentIntendId(String stripePaymentIntendId);
+
+    /*Order detail: the order, its buyer and every item with its product and seller in one query*/
+    @Query("SELECT o FROM Order o " +
+            "JOIN FETCH o.buyer " +
+            "LEFT JOIN FETCH o.items oi LEFT JOIN FETCH oi.product LEFT JOIN FETCH oi.seller " +
+            "WHERE o.id = :id")
+    Optional<Order> findDetailById(@Param("id") Long id);
+
+    /*
+     * Order list projections: one row per order, no entities. The items of a page
+     * come in one more query (OrderItemRepository.findLinesByOrderIds).
+     * */
+
+    interface OrderSummary {
+        Long getId();
+        String getOrderNumber();
+        Long getBuyerId();
+        String getBuyerFirstName();
+        String getBuyerLastName();
+        BigDecimal getTotalAmount();
+        String getStripePaymentStatus();
+        OrderStatus getOrderStatus();
+        String getMeetingLocation();
+        LocalDateTime getMeetingTime();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        LocalDateTime getCompletedAt();
+    }
+
+    @Query(value = "SELECT o.id AS id, o.orderNumber AS orderNumber, " +
+            "b.id AS buyerId, b.firstName AS buyerFirstName, b.lastName AS buyerLastName, " +
+            "o.totalAmount AS totalAmount, o.stripePaymentStatus AS stripePaymentStatus, o.orderStatus AS orderStatus, " +
+            "o.meetingLocation AS meetingLocation, o.meetingTime AS meetingTime, " +
+            "o.createdAt AS createdAt, o.updatedAt AS updatedAt, o.completedAt AS completedAt " +
+            "FROM Order o JOIN o.buyer b " +
+            "WHERE b.id = :buyerId " +
+            "ORDER BY o.createdAt DESC, o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.buyer.id = :buyerId")
+    Page<OrderSummary> findSummariesByBuyerId(@Param("buyerId") Long buyerId, Pageable pageable);
+
+    // EXISTS rather than JOIN ... DISTINCT: an order with several items from the seller is still one row
+    @Query(value = "SELECT o.id AS id, o.orderNumber AS orderNumber, " +
+            "b.id AS buyerId, b.firstName AS buyerFirstName, b.lastName AS buyerLastName, " +
+            "o.totalAmount AS totalAmount, o.stripePaymentStatus AS stripePaymentStatus, o.orderStatus AS orderStatus, " +
+            "o.meetingLocation AS meetingLocation, o.meetingTime AS meetingTime, " +
+            "o.createdAt AS createdAt, o.updatedAt AS updatedAt, o.completedAt AS completedAt " +
+            "FROM Order o JOIN o.buyer b " +
+            "WHERE EXISTS (SELECT oi.id FROM OrderItem oi WHERE oi.order = o AND oi.seller.id = :sellerId) " +
+            "ORDER BY o.createdAt DESC, o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o " +
+                    "WHERE EXISTS (SELECT oi.id FROM OrderItem oi WHERE oi.order = o AND oi.seller.id = :sellerId)")
+    Page<OrderSummary> findSummariesBySellerId(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    /*
+     * Guarded transitions (compare-and-set).
+     * Each one is a single UPDATE ... WHERE id = ? AND status IN (?);
+     * 0 rows updated means another request moved the order first.
+     * */
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :to, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.orderStatus IN :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Collection<OrderStatus> from,
+                         @Param("to") OrderStatus to,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :to, o.stripePaymentStatus = :paymentStatus, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.orderStatus IN :from")
+    int transitionStatusWithPayment(@Param("id") Long id,
+                                    @Param("from") Collection<OrderStatus> from,
+                                    @Param("to") OrderStatus to,
+                                    @Param("paymentStatus") String paymentStatus,
+                                    @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :to, " +
+            "o.meetingLocation = :meetingLocation, o.meetingTime = :meetingTime, o.meetingNotes = :meetingNotes, " +
+            "o.otpGeneratedAt = :now, o.otpExpiresAt = :otpExpiresAt, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.orderStatus IN :from")
+    int arrangeMeeting(@Param("id") Long id,
+                       @Param("from") Collection<OrderStatus> from,
+                       @Param("to") OrderStatus to,
+                       @Param("meetingLocation") String meetingLocation,
+                       @Param("meetingTime") LocalDateTime meetingTime,
+                       @Param("meetingNotes") String meetingNotes,
+                       @Param("otpExpiresAt") LocalDateTime otpExpiresAt,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :to, o.stripePaymentStatus = :paymentStatus, " +
+            "o.otpVerifiedAt = :now, o.completedAt = :now, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.orderStatus IN :from")
+    int completeOrder(@Param("id") Long id,
+                      @Param("from") Collection<OrderStatus> from,
+                      @Param("to") OrderStatus to,
+                      @Param("paymentStatus") String paymentStatus,
+                      @Param("now") LocalDateTime now);
+
+    /*Payment capture queue (PaymentCaptureQueue): the orders themselves are the queue*/
+
+    interface PendingCapture {
+        String getPaymentIntentId();
+        int getCaptureAttempts();
+    }
+
+    @Query("SELECT o.stripePaymentIntendId AS paymentIntentId, o.captureAttempts AS captureAttempts FROM Order o " +
+            "WHERE o.stripePaymentStatus = :paymentStatus ORDER BY o.updatedAt")
+    List<PendingCapture> findCapturesByPaymentStatus(@Param("paymentStatus") String paymentStatus, Pageable pageable);
+
+    /*Counts a failed drain; bumping updated_at also sends the order to the back of the queue*/
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.captureAttempts = o.captureAttempts + 1, o.stripePaymentStatus = :to, " +
+            "o.updatedAt = :now " +
+            "WHERE o.stripePaymentIntendId IN :paymentIntentIds AND o.stripePaymentStatus = :from")
+    int recordCaptureFailures(@Param("paymentIntentIds") Collection<String> paymentIntentIds,
+                              @Param("from") String from,
+                              @Param("to") String to,
+                              @Param("now") LocalDateTime now);
 
-    @Query("SELECT DISTINCT o FROM Order o " +
-            "JOIN o.items oi " +
-            "WHERE oi.seller.id = :sellerId") // Make sure parameter name matches
-    Page<Order> findBySellerId(@Param("sellerId") Long sellerId, Pageable pageable);
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.stripePaymentStatus = :to, o.updatedAt = :now " +
+            "WHERE o.stripePaymentIntendId IN :paymentIntentIds AND o.stripePaymentStatus = :from")
+    int updatePaymentStatus(@Param("paymentIntentIds") Collection<String> paymentIntentIds,
+                            @Param("from") String from,
+                            @Param("to") String to,
+                            @Param("now") LocalDateTime now);
 }
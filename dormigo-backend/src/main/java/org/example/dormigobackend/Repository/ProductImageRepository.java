@@ -1,7 +1,10 @@
 package org.example.dormigobackend.Repository;
 
 import org.example.dormigobackend.Entity.ProductImage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,6 +12,7 @@ import java.util.Optional;
 public interface ProductImageRepository extends JpaRepository<ProductImage,Long> {
 
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ProductImage> findByProductId(Long id);
 
     Optional<ProductImage> findByProductIdAndIsPrimaryTrue(Long id);
@@ -0,0 +1,8 @@
+package org.example.dormigobackend.cache;
+
+/*
+ * Published after a whole cache was cleared on this node,
+ * e.g. by @CacheEvict(allEntries = true).
+ * */
+public record CacheClearedEvent(String cacheName) {
+}
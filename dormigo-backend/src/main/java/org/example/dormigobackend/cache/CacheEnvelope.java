@@ -0,0 +1,20 @@
+package org.example.dormigobackend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * What CoalescingRedisCache actually stores: the cached value plus what
+ * early refresh needs to know about it - how long it took to compute and
+ * when it expires (epoch millis).
+ * */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+
+    private Object value;
+    private long computeMillis;
+    private long expiresAt;
+}
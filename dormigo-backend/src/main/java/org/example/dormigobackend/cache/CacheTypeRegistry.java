@@ -0,0 +1,80 @@
+package org.example.dormigobackend.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.example.dormigobackend.dto.response.CategoryResponse;
+import org.example.dormigobackend.dto.response.PageResponse;
+import org.example.dormigobackend.dto.response.ProductResponse;
+import org.example.dormigobackend.dto.response.UserResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Numeric ids for the value types the binary cache format can store.
+ * The id is written in front of every value instead of class names.
+ *
+ * Ids are persisted in Redis: never renumber or reuse one. Add a new id for a
+ * new type; a retired type keeps its number reserved. A value whose id this
+ * build doesn't know is read as a cache miss and reloaded.
+ * */
+public final class CacheTypeRegistry {
+
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+
+    public static CacheTypeRegistry defaults(TypeFactory typeFactory) {
+        CacheTypeRegistry registry = new CacheTypeRegistry();
+        // products
+        registry.register(1, typeFactory.constructType(ProductResponse.class), ProductResponse.class, null);
+        registry.register(2, typeFactory.constructParametricType(PageResponse.class, ProductResponse.class),
+                PageResponse.class, ProductResponse.class);
+        // categories
+        registry.register(3, typeFactory.constructType(CategoryResponse.class), CategoryResponse.class, null);
+        registry.register(4, typeFactory.constructCollectionType(List.class, CategoryResponse.class),
+                List.class, CategoryResponse.class);
+        // users
+        registry.register(5, typeFactory.constructType(UserResponse.class), UserResponse.class, null);
+        registry.register(6, typeFactory.constructCollectionType(List.class, UserResponse.class),
+                List.class, UserResponse.class);
+        return registry;
+    }
+
+    private void register(int id, JavaType javaType, Class<?> container, @Nullable Class<?> element) {
+        Entry entry = new Entry(id, javaType, container, element);
+        if (byId.putIfAbsent(id, entry) != null) {
+            throw new IllegalStateException("Cache type id " + id + " registered twice");
+        }
+        entries.add(entry);
+    }
+
+    public @Nullable Entry forId(int id) {
+        return byId.get(id);
+    }
+
+    /* Matches on the runtime class and, for pages and lists, on the first element's class */
+    public @Nullable Entry forValue(Object value) {
+        Collection<?> elements = value instanceof PageResponse<?> page ? page.getContent()
+                : value instanceof Collection<?> collection ? collection
+                : null;
+        Class<?> element = elements == null || elements.isEmpty() ? null : elements.iterator().next().getClass();
+
+        for (Entry entry : entries) {
+            if (!entry.container().isInstance(value)) {
+                continue;
+            }
+            // An empty page or list reads back the same whatever its element type
+            if (entry.element() == null || elements != null && (element == null || entry.element() == element)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    public record Entry(int id, JavaType javaType, Class<?> container, @Nullable Class<?> element) {
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.dormigobackend.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Compact binary format for cache values: Smile (binary JSON) without embedded
+ * class names, the type given by a CacheTypeRegistry id instead, and LZ4 once
+ * the payload passes a size threshold.
+ *
+ *   magic(1) version(1) flags(1) typeId(2)
+ *   [computeMillis(8) expiresAt(8)]      when the value is a CacheEnvelope
+ *   [uncompressedLength(4)]              when LZ4 compressed
+ *   payload
+ *
+ * Types the registry doesn't know are written with the JSON fallback serializer,
+ * and so are read back: anything not starting with the magic byte (including
+ * entries written before this format) goes to the fallback.
+ * */
+@Slf4j
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xB1;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_LZ4 = 1;
+    private static final byte FLAG_ENVELOPE = 1 << 1;
+    private static final int HEADER = 5;
+    private static final int ENVELOPE_HEADER = 16;
+
+    private final ObjectMapper smileMapper;
+    private final CacheTypeRegistry registry;
+    private final RedisSerializer<Object> fallback;
+    private final int compressThresholdBytes;
+    /*lz4-java comes from the at.yawk.lz4 fork (1.8.1+), which fixes the out-of-bounds reads
+     * of CVE-2025-12183 in the native/unsafe decompressors fastestInstance() can pick*/
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+
+    public CacheValueSerializer(RedisSerializer<Object> fallback, int compressThresholdBytes) {
+        this.smileMapper = new ObjectMapper(new SmileFactory())
+                .registerModule(new JavaTimeModule())
+                // A field removed in a newer build must not make older entries unreadable
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.registry = CacheTypeRegistry.defaults(smileMapper.getTypeFactory());
+        this.fallback = fallback;
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    @Override
+    public byte @Nullable [] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return fallback.serialize(null);
+        }
+
+        CacheEnvelope envelope = value instanceof CacheEnvelope cacheEnvelope ? cacheEnvelope : null;
+        Object payloadValue = envelope != null ? envelope.getValue() : value;
+        CacheTypeRegistry.Entry type = payloadValue == null ? null : registry.forValue(payloadValue);
+        if (type == null) {
+            return fallback.serialize(value);
+        }
+
+        byte[] payload;
+        try {
+            payload = smileMapper.writerFor(type.javaType()).writeValueAsBytes(payloadValue);
+        } catch (IOException e) {
+            throw new SerializationException("Couldn't write cache value as " + type.javaType(), e);
+        }
+
+        byte flags = envelope != null ? FLAG_ENVELOPE : 0;
+        int uncompressedLength = payload.length;
+        if (payload.length >= compressThresholdBytes) {
+            byte[] compressed = compress(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_LZ4;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER
+                + (envelope != null ? ENVELOPE_HEADER : 0)
+                + ((flags & FLAG_LZ4) != 0 ? 4 : 0)
+                + payload.length);
+        buffer.put(MAGIC).put(VERSION).put(flags).putShort((short) type.id());
+        if (envelope != null) {
+            buffer.putLong(envelope.getComputeMillis()).putLong(envelope.getExpiresAt());
+        }
+        if ((flags & FLAG_LZ4) != 0) {
+            buffer.putInt(uncompressedLength);
+        }
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    @Override
+    public @Nullable Object deserialize(byte @Nullable [] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        byte version = buffer.get();
+        byte flags = buffer.get();
+        int typeId = buffer.getShort();
+        CacheTypeRegistry.Entry type = registry.forId(typeId);
+        if (version != VERSION || type == null) {
+            // Written by a newer build: treat as a miss, the reload overwrites it
+            log.debug("Unknown cache value format (version {}, type id {}), ignoring entry", version, typeId);
+            return null;
+        }
+
+        long computeMillis = 0;
+        long expiresAt = 0;
+        if ((flags & FLAG_ENVELOPE) != 0) {
+            computeMillis = buffer.getLong();
+            expiresAt = buffer.getLong();
+        }
+
+        byte[] payload;
+        if ((flags & FLAG_LZ4) != 0) {
+            int uncompressedLength = buffer.getInt();
+            // LZ4 can't expand more than 255x, so a larger claim is a corrupt entry, not an allocation to attempt
+            if (uncompressedLength < 0 || uncompressedLength / 255 > buffer.remaining()) {
+                throw new SerializationException("Corrupt cache value: uncompressed length " + uncompressedLength);
+            }
+            payload = new byte[uncompressedLength];
+            int decompressed;
+            try {
+                decompressed = decompressor.decompress(bytes, buffer.position(), buffer.remaining(), payload, 0);
+            } catch (LZ4Exception e) {
+                throw new SerializationException("Corrupt cache value: LZ4 payload doesn't decode", e);
+            }
+            if (decompressed != uncompressedLength) {
+                throw new SerializationException("Corrupt cache value: expected " + uncompressedLength
+                        + " bytes, decompressed " + decompressed);
+            }
+        } else {
+            payload = Arrays.copyOfRange(bytes, buffer.position(), bytes.length);
+        }
+
+        Object value;
+        try {
+            value = smileMapper.readerFor(type.javaType()).readValue(payload);
+        } catch (IOException e) {
+            throw new SerializationException("Couldn't read cache value as " + type.javaType(), e);
+        }
+        return (flags & FLAG_ENVELOPE) != 0 ? new CacheEnvelope(value, computeMillis, expiresAt) : value;
+    }
+
+    private byte[] compress(byte[] payload) {
+        byte[] compressed = new byte[compressor.maxCompressedLength(payload.length)];
+        int length = compressor.compress(payload, 0, payload.length, compressed, 0, compressed.length);
+        return Arrays.copyOf(compressed, length);
+    }
+}
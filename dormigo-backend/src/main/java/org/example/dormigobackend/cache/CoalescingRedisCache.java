@@ -0,0 +1,304 @@
+package org.example.dormigobackend.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * RedisCache that keeps a miss or an expiry from turning into a stampede.
+ * Used through @Cacheable(sync = true), which calls get(key, valueLoader):
+ *
+ * - Single flight per key on this node: the first caller loads, the others
+ *   wait for its result instead of running the same query.
+ * - Across nodes the loader takes a short Redis lock (SET NX PX). A node that
+ *   finds the lock taken polls the cache until the holder has written the value,
+ *   and only loads itself if the lock expires without one.
+ * - Probabilistic early refresh (XFetch): a hit close to expiry may trigger a
+ *   background reload while the current value keeps being served, so hot keys
+ *   are replaced before they expire. The closer to expiry and the slower the
+ *   load, the likelier the refresh.
+ *
+ * Values are stored wrapped in a CacheEnvelope; plain values written before
+ * the wrapper existed are still read and simply never refreshed early.
+ *
+ * With read replicas, a reload right after clear() may read a replica that hasn't
+ * replayed the write yet and put the old rows back for the whole TTL, so the clear
+ * is repeated settings.clearAgainAfter() later. Clears within that window share
+ * one repeat, pushed back to the last of them.
+ * */
+@Slf4j
+public class CoalescingRedisCache extends RedisCache {
+
+    private static final String LOCK_PREFIX = "dormigo::cache-lock:";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(25);
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final Executor refreshExecutor;
+    private final ScheduledExecutorService clearScheduler;
+    private final CoalescingSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final Runnable onClear;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    // When the pending repeat of clear() is due (epoch ms), 0 when none is pending
+    private final AtomicLong clearAgainAt = new AtomicLong();
+
+    protected CoalescingRedisCache(String name,
+                                   RedisCacheWriter cacheWriter,
+                                   RedisCacheConfiguration cacheConfiguration,
+                                   StringRedisTemplate redis,
+                                   Executor refreshExecutor,
+                                   ScheduledExecutorService clearScheduler,
+                                   CoalescingSettings settings,
+                                   MeterRegistry meterRegistry,
+                                   Runnable onClear) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.redis = redis;
+        this.refreshExecutor = refreshExecutor;
+        this.clearScheduler = clearScheduler;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.onClear = onClear;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            if (stored instanceof CacheEnvelope envelope && shouldRefreshEarly(envelope)) {
+                refreshInBackground(key, valueLoader);
+            }
+            return (T) fromStoreValue(stored);
+        }
+        return (T) loadOnce(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        super.put(key, value == null ? null : envelope(key, value, 0));
+    }
+
+    @Override
+    public @Nullable ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        return super.putIfAbsent(key, value == null ? null : envelope(key, value, 0));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        onClear.run();
+        long delay = settings.clearAgainAfter().toMillis();
+        if (delay > 0 && clearAgainAt.getAndSet(System.currentTimeMillis() + delay) == 0) {
+            scheduleClearAgain(delay);
+        }
+    }
+
+    @Override
+    protected Object fromStoreValue(@Nullable Object storeValue) {
+        if (storeValue instanceof CacheEnvelope envelope) {
+            return super.fromStoreValue(envelope.getValue());
+        }
+        return super.fromStoreValue(storeValue);
+    }
+
+    private void clearAgain() {
+        long due = clearAgainAt.get();
+        long wait = due - System.currentTimeMillis();
+        if (wait > 0 || !clearAgainAt.compareAndSet(due, 0)) {
+            // Another clear came in meanwhile: repeat after the last one instead
+            scheduleClearAgain(Math.max(0, wait));
+            return;
+        }
+        try {
+            super.clear();
+            onClear.run();
+        } catch (RuntimeException e) {
+            log.warn("Repeated clear of {} failed, reloaded values may be stale until they expire", getName(), e);
+        }
+    }
+
+    private void scheduleClearAgain(long delayMillis) {
+        try {
+            clearScheduler.schedule(this::clearAgain, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            clearAgainAt.set(0);
+        }
+    }
+
+    /* XFetch: refresh once now - delta * beta * ln(rand) passes the expiry */
+    boolean shouldRefreshEarly(CacheEnvelope envelope) {
+        if (settings.beta() <= 0 || envelope.getExpiresAt() == Long.MAX_VALUE) {
+            return false;
+        }
+        long delta = Math.max(envelope.getComputeMillis(), settings.minRecompute().toMillis());
+        double gap = delta * settings.beta() * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= envelope.getExpiresAt();
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            meterRegistry.counter("dormigo.cache.coalesced", "cache", getName()).increment();
+            return await(leader);
+        }
+
+        try {
+            Object value = loadAcrossNodes(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader) {
+        String lockKey = lockKey(key);
+        String token = UUID.randomUUID().toString();
+
+        if (tryLock(lockKey, token)) {
+            try {
+                // Another node may have written it while we were getting the lock
+                Object stored = lookup(key);
+                if (stored != null) {
+                    return fromStoreValue(stored);
+                }
+                return loadAndStore(key, valueLoader, "miss");
+            } finally {
+                unlock(lockKey, token);
+            }
+        }
+
+        // Another node is loading this key: wait for its value rather than querying too
+        meterRegistry.counter("dormigo.cache.coalesced", "cache", getName()).increment();
+        long deadline = System.nanoTime() + settings.lockTtl().toNanos();
+        while (System.nanoTime() < deadline) {
+            sleep(POLL_INTERVAL);
+            Object stored = lookup(key);
+            if (stored != null) {
+                return fromStoreValue(stored);
+            }
+            if (!Boolean.TRUE.equals(redis.hasKey(lockKey))) {
+                break;
+            }
+        }
+        return loadAndStore(key, valueLoader, "miss");
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                String lockKey = lockKey(key);
+                String token = UUID.randomUUID().toString();
+                try {
+                    // Lock taken means another node is already refreshing this key
+                    if (tryLock(lockKey, token)) {
+                        try {
+                            loadAndStore(key, valueLoader, "early_refresh");
+                        } finally {
+                            unlock(lockKey, token);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Early refresh of {}::{} failed, the cached value expires normally", getName(), key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader, String trigger) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long computeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        meterRegistry.counter("dormigo.cache.loads", "cache", getName(), "trigger", trigger).increment();
+
+        if (value != null) {
+            super.put(key, envelope(key, value, computeMillis));
+        }
+        return value;
+    }
+
+    private CacheEnvelope envelope(Object key, Object value, long computeMillis) {
+        Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+        long expiresAt = ttl.isZero() || ttl.isNegative()
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + ttl.toMillis();
+        return new CacheEnvelope(value, computeMillis, expiresAt);
+    }
+
+    /* A Redis outage shouldn't block reads: without Redis every node loads for itself */
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, token, settings.lockTtl()));
+        } catch (DataAccessException e) {
+            log.debug("Cache lock {} unavailable, loading without it", lockKey, e);
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            redis.execute(UNLOCK, List.of(lockKey), token);
+        } catch (DataAccessException e) {
+            log.debug("Couldn't release cache lock {}, it expires on its own", lockKey, e);
+        }
+    }
+
+    private String lockKey(Object key) {
+        return LOCK_PREFIX + getName() + "::" + key;
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for another node to fill the cache", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.dormigobackend.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * RedisCacheManager whose caches are CoalescingRedisCache.
+ * Early refreshes run on a small pool of their own; when it is full the
+ * refresh is skipped and the key just expires as it would have before.
+ * Clearing a whole cache publishes a CacheClearedEvent (picked up by the cache warmer),
+ * and so does its repeat (settings.clearAgainAfter) on the clear-again thread.
+ * */
+public class CoalescingRedisCacheManager extends RedisCacheManager
+        implements DisposableBean, ApplicationEventPublisherAware {
+
+    private final StringRedisTemplate redis;
+    private final CoalescingSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            1, 4, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(64),
+            daemonThreads("cache-refresh-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    private final ScheduledExecutorService clearScheduler =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("cache-clear-again-"));
+    private ApplicationEventPublisher eventPublisher = event -> { };
+
+    public CoalescingRedisCacheManager(RedisCacheWriter cacheWriter,
+                                       RedisCacheConfiguration defaultCacheConfiguration,
+                                       Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                       StringRedisTemplate redis,
+                                       CoalescingSettings settings,
+                                       MeterRegistry meterRegistry) {
+        super(cacheWriter, defaultCacheConfiguration, true, initialCacheConfigurations);
+        this.redis = redis;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, @Nullable RedisCacheConfiguration cacheConfiguration) {
+        return new CoalescingRedisCache(
+                name,
+                getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                redis,
+                refreshExecutor,
+                clearScheduler,
+                settings,
+                meterRegistry,
+                () -> eventPublisher.publishEvent(new CacheClearedEvent(name)));
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.eventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        clearScheduler.shutdownNow();
+        refreshExecutor.shutdown();
+        refreshExecutor.awaitTermination(Duration.ofSeconds(5).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.dormigobackend.cache;
+
+import java.time.Duration;
+
+/*
+ * lockTtl          how long one node may hold the cross-node load lock for a key
+ * beta             early refresh eagerness (0 disables it, 1 is the usual XFetch value)
+ * minRecompute     floor for the measured compute time, so cheap loads still get a
+ *                  refresh window of a few requests before they expire
+ * clearAgainAfter  a whole-cache clear is repeated this long after it (ZERO: never), so
+ *                  values reloaded from a replica that hadn't replayed the write are dropped
+ * */
+public record CoalescingSettings(Duration lockTtl, double beta, Duration minRecompute, Duration clearAgainAfter) {
+}
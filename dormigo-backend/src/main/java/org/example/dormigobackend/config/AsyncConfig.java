@@ -1,19 +1,29 @@
 package org.example.dormigobackend.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework. context.annotation.Bean;
 import org.springframework.context.annotation. Configuration;
 import org.springframework. scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org. springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.Map;
 import java. util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    private final MeterRegistry meterRegistry;
+
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -21,8 +31,40 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setMaxPoolSize(10);          // Maximum threads
         executor.setQueueCapacity(100);       // Queue size
         executor.setThreadNamePrefix("Async-");
+
+        /*Carry the caller's MDC (requestId, userId) into the async task's log lines*/
+        executor.setTaskDecorator(task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    task.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        });
+
+        /*Count rejections, then fail the submit exactly as the default AbortPolicy would*/
+        Counter rejected = Counter.builder("dormigo.async.rejected")
+                .description("Tasks rejected because the async pool and its queue were full")
+                .register(meterRegistry);
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            abort.rejectedExecution(task, pool);
+        });
         executor.initialize();
 
+        Gauge.builder("dormigo.async.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Tasks waiting for an async thread")
+                .register(meterRegistry);
+        Gauge.builder("dormigo.async.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Async threads currently running a task")
+                .register(meterRegistry);
+
         log.info("✅ Async executor configured:  5-10 threads");
         return executor;
     }
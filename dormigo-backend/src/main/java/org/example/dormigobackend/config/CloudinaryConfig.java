@@ -1,13 +1,15 @@
 package org.example.dormigobackend.config;
 
 import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @Slf4j
 public class CloudinaryConfig {
@@ -20,6 +22,10 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
 
+    /* Overrides the API host, e.g. to point uploads at a local stub in the loadtest profile */
+    @Value("${cloudinary.upload-prefix:}")
+    private String uploadPrefix;
+
     @Bean
     public Cloudinary cloudinary() {
 
@@ -35,12 +41,17 @@ public class CloudinaryConfig {
             throw new IllegalStateException("Cloudinary api-secret is not configured!");
         }
 
-        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
-                "cloud_name", cloudName. trim(),
-                "api_key", apiKey.trim(),
-                "api_secret", apiSecret. trim(),
-                "secure", true
-        ));
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", cloudName.trim());
+        config.put("api_key", apiKey.trim());
+        config.put("api_secret", apiSecret.trim());
+        config.put("secure", true);
+        if (!uploadPrefix.isBlank()) {
+            config.put("upload_prefix", uploadPrefix.trim());
+            log.info("Cloudinary API requests go to {}", uploadPrefix.trim());
+        }
+
+        Cloudinary cloudinary = new Cloudinary(config);
 
         log.info("✅ Cloudinary bean created successfully");
         return cloudinary;
@@ -0,0 +1,28 @@
+package org.example.dormigobackend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Custom metrics, all exported at /actuator/prometheus:
+ *
+ * dormigo.service             @Timed on ProductService, OrderService, CartService (class, method, exception)
+ * dormigo.email.send          template render + SMTP (template, outcome), dormigo.email.failures (template)
+ * dormigo.cloudinary.upload   upload round trip (outcome)
+ * dormigo.async.*             queue depth, active threads, rejections of the @Async pool
+ * cache.*                     Redis cache statistics per cache (bound by actuator)
+ * dormigo.cache.loads         cache loads that reached the database (cache, trigger=miss|early_refresh)
+ * dormigo.cache.coalesced     requests that waited for another request's or node's load (cache)
+ *
+ * Tags stay low-cardinality: no ids, emails or paths.
+ * */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
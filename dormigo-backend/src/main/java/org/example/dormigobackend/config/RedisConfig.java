@@ -5,22 +5,35 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.cache.CoalescingRedisCacheManager;
+import org.example.dormigobackend.cache.CoalescingSettings;
+import org.example.dormigobackend.cache.CacheValueSerializer;
 import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.*;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Configuration
-@EnableCaching
+/*Caching advice runs outside @Transactional: hits never open a transaction,
+ * and a background early refresh starts its own*/
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 @Slf4j
 public class RedisConfig {
 
@@ -71,8 +84,27 @@ public class RedisConfig {
 
     }
 
+    /*Pub/sub subscriptions (token revocations)*/
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper redisObjectMapper) {
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     ObjectMapper redisObjectMapper,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cache.coalescing.lock-ttl-ms:5000}") long lockTtlMillis,
+                                     @Value("${cache.coalescing.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                     @Value("${cache.coalescing.min-recompute-ms:1000}") long minRecomputeMillis,
+                                     @Value("${replica.datasource.urls:}") String replicaUrls,
+                                     @Value("${replica.datasource.max-lag-seconds:2}") double replicaMaxLagSeconds,
+                                     @Value("${replica.datasource.lag-check-ms:5000}") long replicaLagCheckMillis,
+                                     @Value("${cache.serialization.format:binary}") String serializationFormat,
+                                     @Value("${cache.serialization.compress-threshold-bytes:1024}") int compressThresholdBytes) {
 
         GenericJackson2JsonRedisSerializer jsonRedisSerializer =
                 new GenericJackson2JsonRedisSerializer(redisObjectMapper);
@@ -85,20 +117,44 @@ public class RedisConfig {
                 .disableCachingNullValues();
 
 
-        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(redisCacheConfiguration)
+        /*The DTO caches below can use the compact binary format (see CacheValueSerializer);
+         * it still reads JSON entries, so switching to it needs no flush*/
+        RedisCacheConfiguration dtoCacheConfiguration = "binary".equalsIgnoreCase(serializationFormat)
+                ? redisCacheConfiguration.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new CacheValueSerializer(jsonRedisSerializer, compressThresholdBytes)))
+                : redisCacheConfiguration;
 
+        Map<String, RedisCacheConfiguration> cacheConfigurations = Map.of(
                 //Products : 30 mins
-
-                .withCacheConfiguration("products",
-                        redisCacheConfiguration.entryTtl(Duration.ofMinutes(30)))
+                "products", dtoCacheConfiguration.entryTtl(Duration.ofMinutes(30)),
 
                 //Categories : 1 hour
-                .withCacheConfiguration("categories", redisCacheConfiguration.entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("users", redisCacheConfiguration.entryTtl(Duration.ofMinutes(15)))
-                .build();
-
-        log.info("Cache Configuration ✅");
+                "categories", dtoCacheConfiguration.entryTtl(Duration.ofHours(1)),
+                "users", dtoCacheConfiguration.entryTtl(Duration.ofMinutes(15)));
+
+        //Hit/miss/put/eviction counts, bound to Micrometer as cache.* by actuator
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory)
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+
+        /*A replica in rotation was within max-lag at its last check: repeat clears after that plus one check*/
+        Duration clearAgainAfter = replicaUrls.isBlank()
+                ? Duration.ZERO
+                : Duration.ofMillis((long) (replicaMaxLagSeconds * 1000) + replicaLagCheckMillis);
+
+        /*Coalesced misses + early refresh, see CoalescingRedisCache*/
+        CoalescingSettings coalescingSettings = new CoalescingSettings(
+                Duration.ofMillis(lockTtlMillis), earlyRefreshBeta, Duration.ofMillis(minRecomputeMillis),
+                clearAgainAfter);
+
+        RedisCacheManager redisCacheManager = new CoalescingRedisCacheManager(
+                cacheWriter,
+                redisCacheConfiguration,
+                cacheConfigurations,
+                stringRedisTemplate,
+                coalescingSettings,
+                meterRegistry);
+
+        log.info("Cache Configuration ✅ (value format: {})", serializationFormat);
 
         return redisCacheManager;
 
@@ -0,0 +1,10 @@
+package org.example.dormigobackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // This enables @Scheduled jobs (seller stats rebuild)
+}
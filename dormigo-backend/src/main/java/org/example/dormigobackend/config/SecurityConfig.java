@@ -1,9 +1,16 @@
 package org.example.dormigobackend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dormigobackend.security.BCryptCostCalibrator;
+import org.example.dormigobackend.security.BoundedPasswordEncoder;
 import org.example.dormigobackend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context. annotation.Bean;
 import org. springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security. authentication.AuthenticationManager;
 import org.springframework.security.config. annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework. security.config.annotation.method. configuration.EnableMethodSecurity;
@@ -12,21 +19,54 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.Customizer;
 import org. springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto. bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security. crypto.password.PasswordEncoder;
 import org.springframework.security. web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    /*Stored hashes carry their id ({bcrypt}$2a$...); hashes from before the prefix are read as bcrypt.
+     * DaoAuthenticationProvider rehashes on a successful login whenever upgradeEncoding says so:
+     * no prefix yet, or a cost below the one picked here (see UserDetailsServiceImpl.updatePassword)*/
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-cost:0}") int pinnedCost,
+                                           @Value("${security.password.min-cost:10}") int minCost,
+                                           @Value("${security.password.max-cost:14}") int maxCost,
+                                           @Value("${security.password.target-hash-ms:100}") long targetHashMillis,
+                                           @Value("${security.password.threads:0}") int threads,
+                                           @Value("${security.password.queue-capacity:32}") int queueCapacity,
+                                           @Value("${security.password.max-wait-ms:2000}") long maxWaitMillis) {
+        int cost = pinnedCost > 0
+                ? pinnedCost
+                : BCryptCostCalibrator.calibrate(minCost, maxCost, Duration.ofMillis(targetHashMillis));
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // Half the cores by default: a login surge must leave CPU for the catalog
+        int hashThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        log.info("🔐 Password hashing: {} threads, queue {}", hashThreads, queueCapacity);
+        return new BoundedPasswordEncoder(delegating, hashThreads, queueCapacity,
+                Duration.ofMillis(maxWaitMillis), meterRegistry);
     }
 
     @Bean
@@ -40,7 +80,12 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Missing, expired or revoked token: 401, the client's cue to use its refresh token
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE on /api/orders/stream) continue a request already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/products/public/**").permitAll()
                         .requestMatchers("/api/products/*/images", "/api/products/*/images/primary").permitAll()
@@ -48,11 +93,23 @@ public class SecurityConfig {
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/files/**").permitAll()
                         .requestMatchers("/api/category/public/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers(onManagementPort("/actuator/prometheus")).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
+
+    /*The scrape endpoint is open only on the management port, which is never published;
+     * anywhere else (or when no separate port is configured) it falls under the admin rule*/
+    private RequestMatcher onManagementPort(String path) {
+        RequestMatcher pathMatcher = PathPatternRequestMatcher.withDefaults().matcher(path);
+        return request -> managementPort > 0
+                && request.getLocalPort() == managementPort
+                && pathMatcher.matches(request);
+    }
 }
 
@@ -1,6 +1,7 @@
 package org.example.dormigobackend.controller;
 
 import org.example.dormigobackend.dto.request.LoginRequest;
+import org.example.dormigobackend.dto.request.RefreshTokenRequest;
 import org.example.dormigobackend.dto.request.RegisterRequest;
 import org.example.dormigobackend.dto.response.AuthResponse;
 import org.example.dormigobackend.dto.response.UserResponse;
@@ -45,4 +46,15 @@ public class AuthController {
         return new ResponseEntity<>(authResponse, HttpStatus.OK);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(authService.refresh(refreshTokenRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        authService.logout(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
 }
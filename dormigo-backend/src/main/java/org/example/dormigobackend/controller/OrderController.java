@@ -5,17 +5,25 @@ import org.example.dormigobackend.dto.request.CreateOrderRequest;
 import org.example.dormigobackend.dto.request.OTPRequest;
 import org.example.dormigobackend.dto.request.SetMeetingRequest;
 import org.example.dormigobackend.dto.response.OrderResponse;
+import org.example.dormigobackend.dto.response.OrderSummaryResponse;
+import org.example.dormigobackend.dto.response.SellerSalesSummaryResponse;
 import org.example.dormigobackend.security.UserPrincipal;
+import org.example.dormigobackend.service.OrderEventStream;
 import org.example.dormigobackend.service.OrderService;
+import org.example.dormigobackend.service.SellerStatsService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -27,6 +35,8 @@ import java.util.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final SellerStatsService sellerStatsService;
+    private final OrderEventStream orderEventStream;
 
     @PostMapping
     public ResponseEntity<Map<String,Object>> placeOrder(
@@ -64,7 +74,7 @@ public class OrderController {
     @PostMapping("/{orderId}/verify-otp")
     public ResponseEntity<OrderResponse> verifyOtp(
             @PathVariable Long orderId,
-            @RequestBody OTPRequest otpRequest,
+            @Valid @RequestBody OTPRequest otpRequest,
             @AuthenticationPrincipal UserPrincipal userPrincipal
     ){
         log.info("Verify OTP Request Received");
@@ -85,28 +95,51 @@ public class OrderController {
     }
 
     @GetMapping("/get-orders")
-    public ResponseEntity<Page<OrderResponse>> getOrder(
+    public ResponseEntity<Page<OrderSummaryResponse>> getOrder(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size)
     {
         log.info("Get Order Request Received");
-        Page<OrderResponse> response = orderService.getMyOrders(userPrincipal,page, size);
+        Page<OrderSummaryResponse> response = orderService.getMyOrders(userPrincipal,page, size);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/get-sales")
-    public ResponseEntity<Page<OrderResponse>> getSales(
+    public ResponseEntity<Page<OrderSummaryResponse>> getSales(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     )
     {
         log.info("Get Sales Request Received");
-        Page<OrderResponse>  response = orderService.getMySales(userPrincipal, page, size);
+        Page<OrderSummaryResponse>  response = orderService.getMySales(userPrincipal, page, size);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/sales/summary")
+    public ResponseEntity<SellerSalesSummaryResponse> getSalesSummary(
+            @AuthenticationPrincipal UserPrincipal userPrincipal
+    )
+    {
+        log.info("Get Sales Summary Request Received");
+        SellerSalesSummaryResponse response = sellerStatsService.getSummary(userPrincipal.getId());
+        return ResponseEntity.ok(response);
+    }
+
+    /*Status changes of the user's purchases and sales as they happen (see OrderEventStream)*/
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderUpdates(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response)
+    {
+        log.info("Order Stream Request Received");
+        // Keep proxies (nginx) from buffering the events
+        response.setHeader("X-Accel-Buffering", "no");
+        return orderEventStream.subscribe(userPrincipal.getId(), lastEventId);
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderResponse> getOrderById(
             @PathVariable Long orderId,
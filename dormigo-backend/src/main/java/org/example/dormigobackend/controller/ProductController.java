@@ -9,6 +9,7 @@ import org.example.dormigobackend.dto.response.PageResponse;
 import org.example.dormigobackend.dto.response.ProductResponse;
 import org.example.dormigobackend.security.UserPrincipal;
 import org.example.dormigobackend.service.ProductService;
+import org.example.dormigobackend.service.ProductViewTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,7 @@ public class ProductController {
 
     private final ProductRepository productRepository;
     private final ProductService productService;
+    private final ProductViewTracker productViewTracker;
 
     @GetMapping("/public/all")
     public ResponseEntity<PageResponse<ProductResponse>> getAllAvailableProducts(
@@ -56,7 +58,9 @@ public class ProductController {
 
     @GetMapping("/public/{id}")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id){
-        return ResponseEntity.ok(productService.getProductById(id));
+        ProductResponse product = productService.getProductById(id);
+        productViewTracker.recordView(id);
+        return ResponseEntity.ok(product);
     }
 
     @GetMapping("/public/category/{categoryId}")
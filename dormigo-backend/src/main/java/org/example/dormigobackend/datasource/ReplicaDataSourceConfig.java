@@ -0,0 +1,78 @@
+package org.example.dormigobackend.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Only active when replica.datasource.urls is set; otherwise Boot's single
+ * DataSource on spring.datasource.url is used as before.
+ *
+ * Both pools start from spring.datasource.hikari.* (timeouts, data-source-properties
+ * such as reWriteBatchedInserts, ...) exactly as Boot's own pool would; only the
+ * name, URL, credentials and, for replicas, the size are set here.
+ * */
+@Configuration
+@ConditionalOnProperty(name = "replica.datasource.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig hikariSettings() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(HikariConfig hikariSettings,
+                                 @Value("${replica.datasource.urls}") List<String> urls,
+                                 @Value("${replica.datasource.username:${spring.datasource.username}}") String username,
+                                 @Value("${replica.datasource.password:${spring.datasource.password}}") String password,
+                                 @Value("${replica.datasource.pool-size:10}") int poolSize,
+                                 @Value("${replica.datasource.max-lag-seconds:2}") double maxLagSeconds,
+                                 MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = poolConfig(hikariSettings, "replica-" + i, urls.get(i).trim(), username, password,
+                    meterRegistry);
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaSet(pools, maxLagSeconds, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaSet replicaSet,
+                                 HikariConfig hikariSettings,
+                                 @Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username}") String username,
+                                 @Value("${spring.datasource.password}") String password,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource primary = new HikariDataSource(
+                poolConfig(hikariSettings, "primary", url, username, password, meterRegistry));
+        return new ReplicaRoutingDataSource(primary, replicaSet);
+    }
+
+    private static HikariConfig poolConfig(HikariConfig settings, String name, String url, String username,
+                                           String password, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        settings.copyStateTo(config);
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
+    }
+}
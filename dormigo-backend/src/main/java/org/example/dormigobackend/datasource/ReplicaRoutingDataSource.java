@@ -0,0 +1,66 @@
+package org.example.dormigobackend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/*
+ * Sends @Transactional(readOnly = true) work to a replica and everything else to the primary.
+ *
+ * The connection handed to Hibernate is a lazy proxy: the physical connection is only
+ * taken on the first statement, by which time the transaction manager has published the
+ * transaction's read-only flag. The route is picked from that flag, not from
+ * Connection.setReadOnly: with connections released after each transaction neither Spring
+ * nor Hibernate calls it for a readOnly transaction. Read-only goes to the replica set
+ * (falling back to the primary when no replica is in rotation), anything else, including
+ * work outside a transaction, to the primary.
+ * */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource primary;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, ReplicaSet replicas) {
+        super(new ReadOnlyRouter(replicas, primary));
+        this.primary = primary;
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+    }
+
+    private static final class ReadOnlyRouter extends AbstractDataSource {
+
+        private final ReplicaSet replicas;
+        private final DataSource primary;
+
+        private ReadOnlyRouter(ReplicaSet replicas, DataSource primary) {
+            this.replicas = replicas;
+            this.primary = primary;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route().getConnection(username, password);
+        }
+
+        private DataSource route() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return primary;
+            }
+            DataSource replica = replicas.pick();
+            return replica != null ? replica : primary;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.dormigobackend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * The read replica pools and how far behind each one is.
+ * A replica only serves reads while its last measured lag is within max-lag-seconds;
+ * a failed check or a lagging replica is skipped until it catches up again.
+ * Replicas start out skipped, so nothing is read from them before the first check.
+ * */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    /*0 on a primary (two pools on one instance) or when everything received has been replayed*/
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<HikariDataSource> pools, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLagSeconds;
+
+        for (Replica replica : replicas) {
+            Gauge.builder("dormigo.db.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Seconds the replica is behind the primary (-1 when unreachable)")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("dormigo.db.replica.in_rotation", replica, r -> r.inRotation ? 1 : 0)
+                    .tag("pool", replica.pool.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /*Next replica in rotation, round-robin; null sends the read to the primary*/
+    public @Nullable DataSource pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.inRotation) {
+                return replica.pool;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.datasource.lag-check-ms:5000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasInRotation = replica.inRotation;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                try (ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+                    resultSet.next();
+                    replica.lagSeconds = resultSet.getDouble(1);
+                }
+                replica.inRotation = replica.lagSeconds <= maxLagSeconds;
+            } catch (Exception e) {
+                replica.lagSeconds = -1;
+                replica.inRotation = false;
+                if (wasInRotation) {
+                    log.warn("Replica {} is unreachable, reading from the primary ❌", replica.pool.getPoolName(), e);
+                }
+            }
+
+            if (wasInRotation && !replica.inRotation && replica.lagSeconds >= 0) {
+                log.warn("Replica {} is {}s behind (max {}s), reading from the primary",
+                        replica.pool.getPoolName(), replica.lagSeconds, maxLagSeconds);
+            } else if (!wasInRotation && replica.inRotation) {
+                log.info("Replica {} is serving reads ✅", replica.pool.getPoolName());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile double lagSeconds = -1;
+        private volatile boolean inRotation;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
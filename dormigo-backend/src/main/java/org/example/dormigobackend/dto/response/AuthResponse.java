@@ -13,6 +13,9 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
 
     private String token;
+    /*Seconds until token expires; renew it at /api/auth/refresh*/
+    private Long expiresIn;
+    private String refreshToken;
     private Long userId;
     private String type = "Bearer";
     private String firstName;
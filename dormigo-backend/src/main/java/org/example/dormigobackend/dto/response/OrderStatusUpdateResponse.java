@@ -0,0 +1,23 @@
+package org.example.dormigobackend.dto.response;
+
+import org.example.dormigobackend.Enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*One "order-status" event on /api/orders/stream; previousStatus is null for a new order*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderStatusUpdateResponse {
+
+    private Long orderId;
+    private String orderNumber;
+    private OrderStatus previousStatus;
+    private OrderStatus newStatus;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,39 @@
+package org.example.dormigobackend.dto.response;
+
+import org.example.dormigobackend.Enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*An order as the order lists show it; the full OrderResponse is only served by GET /api/orders/{id}*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+
+    private Long id;
+    private String orderNumber;
+
+    private Long buyerId;
+    private String buyerName;
+
+    private List<OrderItemResponse> items;
+    private Integer itemCount;
+    private BigDecimal totalPrice;
+
+    private String stripePaymentStatus;
+    private OrderStatus orderStatus;
+
+    private String meetingLocation;
+    private LocalDateTime meetingDate;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,36 @@
+package org.example.dormigobackend.dto.response;
+
+import org.example.dormigobackend.Enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerSalesSummaryResponse {
+
+    private Long sellerId;
+    private BigDecimal totalRevenue;
+    private Long unitsSold;
+    private Map<OrderStatus, Long> ordersByStatus;
+    private List<TopProduct> topProducts;
+    // First build of this seller's figures still running: they may be incomplete, ask again shortly
+    private boolean building;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopProduct {
+        private Long productId;
+        private String productTitle;
+        private Long unitsSold;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.dormigobackend.event;
+
+import org.example.dormigobackend.Entity.Order;
+import org.example.dormigobackend.Entity.OrderItem;
+import org.example.dormigobackend.Entity.User;
+import org.example.dormigobackend.Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by OrderService after every successful status transition.
+ * Carries ids only so listeners never hold on to managed entities.
+ * previousStatus is null when the order has just been created.
+ */
+public record OrderStatusChangedEvent(
+        Long orderId,
+        String orderNumber,
+        Long buyerId,
+        Set<Long> sellerIds,
+        OrderStatus previousStatus,
+        OrderStatus newStatus,
+        LocalDateTime occurredAt
+) {
+
+    public static OrderStatusChangedEvent of(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        Set<Long> sellerIds = order.getItems().stream()
+                .map(OrderItem::getSeller)
+                .map(User::getId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        return new OrderStatusChangedEvent(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getBuyer().getId(),
+                sellerIds,
+                previousStatus,
+                newStatus,
+                LocalDateTime.now()
+        );
+    }
+}
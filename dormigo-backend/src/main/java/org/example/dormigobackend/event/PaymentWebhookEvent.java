@@ -0,0 +1,28 @@
+package org.example.dormigobackend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment provider webhook, delivered by MockPaymentWebhookDispatcher the way
+ * Stripe delivers its events: asynchronously, after the change, at least once.
+ * The same eventId can arrive again (attempt > 1), so handlers must be idempotent.
+ */
+public record PaymentWebhookEvent(
+        String eventId,
+        String type,
+        String paymentIntentId,
+        String orderNumber,
+        BigDecimal amount,
+        int attempt,
+        LocalDateTime createdAt
+) {
+
+    public static final String AMOUNT_CAPTURABLE_UPDATED = "payment_intent.amount_capturable_updated";
+    public static final String SUCCEEDED = "payment_intent.succeeded";
+    public static final String CANCELED = "payment_intent.canceled";
+
+    public PaymentWebhookEvent nextAttempt() {
+        return new PaymentWebhookEvent(eventId, type, paymentIntentId, orderNumber, amount, attempt + 1, createdAt);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.dormigobackend.exception;
+
+/*The payment provider refused or failed a call; nothing was charged*/
+public class PaymentProviderException extends RuntimeException {
+
+    public PaymentProviderException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import org.example.dormigobackend.dto.response.ErrorResponse;
 import org.example.dormigobackend.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.example.dormigobackend.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http. ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -175,6 +176,48 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Handle TooManyRequestsException (429)
+     * Thrown when: a rate limit (per IP or per account) is used up
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(
+            TooManyRequestsException ex,
+            HttpServletRequest request
+    ) {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(ex.getMessage())
+                .details("Retry after " + ex.getRetryAfterSeconds() + " seconds")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Handle PaymentProviderException (502)
+     * Thrown when: the payment provider fails a call (MockPaymentService failure injection)
+     */
+    @ExceptionHandler(PaymentProviderException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentProvider(
+            PaymentProviderException ex,
+            HttpServletRequest request
+    ) {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.BAD_GATEWAY.value())
+                .message(ex.getMessage())
+                .details("The payment provider could not process the request, please try again")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(error);
+    }
+
     /**
      * Handle all other unexpected exceptions (500)
      * Catch-all for any unhandled exceptions
@@ -0,0 +1,49 @@
+package org.example.dormigobackend.jfr;
+
+import jdk.jfr.*;
+
+/* One OrderService.createOrder call, split into its phases */
+@Name("dormigo.Checkout")
+@Label("Checkout")
+@Category({"Dormigo", "Orders"})
+@Description("Order creation from the buyer's cart")
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Items")
+    public int itemCount;
+
+    @Label("Total Amount")
+    public String totalAmount;
+
+    @Label("Cart Fetch")
+    @Timespan(Timespan.NANOSECONDS)
+    public long cartFetch;
+
+    @Label("Payment Intent")
+    @Timespan(Timespan.NANOSECONDS)
+    public long paymentIntent;
+
+    @Label("Stock Update")
+    @Description("Stock checks and changes in memory; written by the Persist Order flush")
+    @Timespan(Timespan.NANOSECONDS)
+    public long stockUpdate;
+
+    @Label("Persist Order")
+    @Description("Order, item, stock and cart writes, flushed as JDBC batches")
+    @Timespan(Timespan.NANOSECONDS)
+    public long persistOrder;
+
+    @Label("Email Handoff")
+    @Timespan(Timespan.NANOSECONDS)
+    public long emailHandoff;
+
+    @Label("Succeeded")
+    public boolean success;
+}
@@ -0,0 +1,29 @@
+package org.example.dormigobackend.jfr;
+
+import jdk.jfr.*;
+
+/* One templated email: FreeMarker rendering and SMTP delivery */
+@Name("dormigo.EmailRender")
+@Label("Email Render And Send")
+@Category({"Dormigo", "Email"})
+@StackTrace(false)
+public class EmailRenderEvent extends Event {
+
+    @Label("Template")
+    public String template;
+
+    @Label("HTML Length")
+    @DataAmount(DataAmount.BYTES)
+    public int htmlLength;
+
+    @Label("Render")
+    @Timespan(Timespan.NANOSECONDS)
+    public long render;
+
+    @Label("Send")
+    @Timespan(Timespan.NANOSECONDS)
+    public long send;
+
+    @Label("Succeeded")
+    public boolean success;
+}
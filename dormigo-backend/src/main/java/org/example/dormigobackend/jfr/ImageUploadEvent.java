@@ -0,0 +1,29 @@
+package org.example.dormigobackend.jfr;
+
+import jdk.jfr.*;
+
+/* One image upload to Cloudinary */
+@Name("dormigo.ImageUpload")
+@Label("Image Upload")
+@Category({"Dormigo", "Images"})
+@StackTrace(false)
+public class ImageUploadEvent extends Event {
+
+    @Label("File Size")
+    @DataAmount(DataAmount.BYTES)
+    public long fileSize;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Read File")
+    @Timespan(Timespan.NANOSECONDS)
+    public long readFile;
+
+    @Label("Upload")
+    @Timespan(Timespan.NANOSECONDS)
+    public long upload;
+
+    @Label("Succeeded")
+    public boolean success;
+}
@@ -0,0 +1,137 @@
+package org.example.dormigobackend.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * On-demand flight recording, always bounded in age and size.
+ *
+ *   POST   /actuator/jfr            start (maxAgeSeconds, maxSizeMb optional, positive; 400 otherwise)
+ *   GET    /actuator/jfr            status
+ *   GET    /actuator/jfr/dump       download what has been recorded so far
+ *   DELETE /actuator/jfr            stop and discard
+ *
+ * Uses the JDK "profile" settings plus the dormigo.* events.
+ * */
+@Component
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    private static final int DEFAULT_MAX_AGE_SECONDS = 300;
+    private static final int MAX_AGE_LIMIT_SECONDS = 1800;
+    private static final int DEFAULT_MAX_SIZE_MB = 100;
+    private static final int MAX_SIZE_LIMIT_MB = 500;
+
+    private Recording recording;
+    private Path lastDump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer maxAgeSeconds, @Nullable Integer maxSizeMb)
+            throws IOException, ParseException {
+        requirePositive("maxAgeSeconds", maxAgeSeconds);
+        requirePositive("maxSizeMb", maxSizeMb);
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running; DELETE it first");
+        }
+        closeRecording();
+
+        int age = Math.min(maxAgeSeconds != null ? maxAgeSeconds : DEFAULT_MAX_AGE_SECONDS, MAX_AGE_LIMIT_SECONDS);
+        int size = Math.min(maxSizeMb != null ? maxSizeMb : DEFAULT_MAX_SIZE_MB, MAX_SIZE_LIMIT_MB);
+
+        recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("dormigo-on-demand");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(age));
+        recording.setMaxSize(size * 1024L * 1024L);
+        recording.enable(CheckoutEvent.class);
+        recording.enable(SearchEvent.class);
+        recording.enable(EmailRenderEvent.class);
+        recording.enable(ImageUploadEvent.class);
+        recording.start();
+
+        log.info("JFR recording started (max age {}s, max size {} MB)", age, size);
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!"dump".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        deleteLastDump();
+        lastDump = Files.createTempFile("dormigo-", ".jfr");
+        recording.dump(lastDump);
+        log.info("JFR recording dumped to {}", lastDump);
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() throws IOException {
+        closeRecording();
+        deleteLastDump();
+        log.info("JFR recording stopped");
+        return status();
+    }
+
+    /* Thrown as InvalidEndpointRequestException, which actuator answers with a 400 */
+    private static void requirePositive(String name, @Nullable Integer value) {
+        if (value != null && value <= 0) {
+            throw new InvalidEndpointRequestException(name + " must be positive, got " + value,
+                    name + " must be positive");
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteLastDump() throws IOException {
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+            lastDump = null;
+        }
+    }
+}
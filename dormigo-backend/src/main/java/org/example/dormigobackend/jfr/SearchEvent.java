@@ -0,0 +1,44 @@
+package org.example.dormigobackend.jfr;
+
+import jdk.jfr.*;
+
+/* A product search: keyword search or the advanced filter */
+@Name("dormigo.Search")
+@Label("Product Search")
+@Category({"Dormigo", "Products"})
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Kind")
+    @Description("keyword or advanced")
+    public String kind;
+
+    @Label("Keyword")
+    public String keyword;
+
+    @Label("Category Id")
+    public long categoryId;
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int size;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Total Matches")
+    public long totalElements;
+
+    @Label("Query")
+    @Timespan(Timespan.NANOSECONDS)
+    public long query;
+
+    @Label("Mapping")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mapping;
+}
@@ -0,0 +1,60 @@
+package org.example.dormigobackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Keeps 1 in N INFO-or-lower events for configured logger prefixes.
+ * WARN and ERROR always pass. Runs before the event object is built,
+ * so a dropped line costs a prefix check and a counter increment.
+ *
+ * Configured in logback-spring.xml:
+ *   <turboFilter class="...SamplingTurboFilter">
+ *       <sample>org.example.dormigobackend.service.EmailService=10</sample>
+ *   </turboFilter>
+ * */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /* "logger.prefix=N" - keep every Nth event */
+    public void addSample(String rule) {
+        int separator = rule.lastIndexOf('=');
+        if (separator < 1) {
+            addError("Sampling rule must look like logger.prefix=N: " + rule);
+            return;
+        }
+        String prefix = rule.substring(0, separator).trim();
+        int oneIn = Integer.parseInt(rule.substring(separator + 1).trim());
+        if (oneIn > 1) {
+            rules.add(new Rule(prefix, oneIn, new AtomicLong()));
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        /*format is null for isXxxEnabled() probes; only count real events above the logger's level.
+         * getEffectiveLevel() and not isEnabledFor(), which would re-enter the turbo filters*/
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (Rule rule : rules) {
+            if (name.startsWith(rule.prefix())) {
+                return rule.counter().getAndIncrement() % rule.oneIn() == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private record Rule(String prefix, int oneIn, AtomicLong counter) {
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.dormigobackend.mapper;
 
 import org.example.dormigobackend.Entity.OrderItem;
+import org.example.dormigobackend.Repository.OrderItemRepository;
 import org.example.dormigobackend.dto.response.OrderItemResponse;
 import org.springframework.stereotype.Component;
 
@@ -24,4 +25,17 @@ public class OrderItemMapper {
                     .build();
         }
     }
+
+    public static OrderItemResponse toResponse(OrderItemRepository.OrderLine line){
+        return OrderItemResponse.builder()
+                .id(line.getId())
+                .priceAtPurchase(line.getPriceAtPurchase())
+                .quantity(line.getQuantity())
+                .sellerId(line.getSellerId())
+                .sellerName(line.getSellerFirstName() + " " + line.getSellerLastName())
+                .productId(line.getProductId())
+                .productTitle(line.getProductTitle())
+                .subtotal(line.getSubTotal())
+                .build();
+    }
 }
@@ -1,9 +1,13 @@
 package org.example.dormigobackend.mapper;
 
 import org.example.dormigobackend.Entity.Order;
+import org.example.dormigobackend.Repository.OrderRepository;
+import org.example.dormigobackend.dto.response.OrderItemResponse;
 import org.example.dormigobackend.dto.response.OrderResponse;
+import org.example.dormigobackend.dto.response.OrderSummaryResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -37,6 +41,23 @@ public class OrderMapper {
             return orderResponse;
         }
     }
-}
-
 
+    public static OrderSummaryResponse toSummary(OrderRepository.OrderSummary order, List<OrderItemResponse> items) {
+        return OrderSummaryResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .buyerId(order.getBuyerId())
+                .buyerName(order.getBuyerFirstName() + " " + order.getBuyerLastName())
+                .items(items)
+                .itemCount(items.size())
+                .totalPrice(order.getTotalAmount())
+                .stripePaymentStatus(order.getStripePaymentStatus())
+                .orderStatus(order.getOrderStatus())
+                .meetingLocation(order.getMeetingLocation())
+                .meetingDate(order.getMeetingTime())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .completedAt(order.getCompletedAt())
+                .build();
+    }
+}
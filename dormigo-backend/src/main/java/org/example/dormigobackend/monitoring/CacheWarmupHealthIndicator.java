@@ -0,0 +1,33 @@
+package org.example.dormigobackend.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dormigobackend.service.CatalogCacheWarmer;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/*
+ * "cacheWarmup" in the readiness group: OUT_OF_SERVICE until the startup
+ * warm-up has finished, so a fresh node gets no traffic while its caches are cold.
+ * */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CatalogCacheWarmer catalogCacheWarmer;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = catalogCacheWarmer.isWarmedOnce() ? Health.up() : Health.outOfService();
+        builder.withDetail("running", catalogCacheWarmer.isRunning());
+        CatalogCacheWarmer.Run lastRun = catalogCacheWarmer.getLastRun();
+        if (lastRun != null) {
+            builder.withDetail("lastRunAt", lastRun.startedAt().toString())
+                    .withDetail("lastRunMillis", lastRun.millis())
+                    .withDetail("loaded", lastRun.loaded())
+                    .withDetail("failed", lastRun.failed())
+                    .withDetail("skipped", lastRun.skipped());
+        }
+        return builder.build();
+    }
+}
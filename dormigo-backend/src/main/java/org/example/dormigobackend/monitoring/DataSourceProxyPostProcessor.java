@@ -0,0 +1,32 @@
+package org.example.dormigobackend.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/*
+ * Wraps the application DataSource with datasource-proxy so every statement
+ * passes through QueryProfilingListener. Replaces spring.jpa.show-sql.
+ * */
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final long slowQueryMillis;
+
+    public DataSourceProxyPostProcessor(long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new QueryProfilingListener(slowQueryMillis))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.dormigobackend.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryProfilerConfig {
+
+    /*Static so the post-processor is registered before the DataSource is created*/
+    @Bean
+    public static DataSourceProxyPostProcessor dataSourceProxyPostProcessor(
+            @Value("${query-profiler.slow-query-ms:100}") long slowQueryMillis) {
+        return new DataSourceProxyPostProcessor(slowQueryMillis);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.dormigobackend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Opens a RequestQueryStats for each request and, once it's done,
+ * records per-endpoint statement counts and JDBC time as metrics.
+ * Only requests that are slow, chatty or show an N+1 pattern get logged.
+ *
+ * Endpoints are tagged by their mapping pattern (/api/products/public/{id}), never the raw path.
+ * */
+@Component
+/*Right after RequestMdcFilter so the log lines carry the request id*/
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryProfilingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query-profiler.slow-request-ms:500}")
+    private long slowRequestMillis;
+
+    @Value("${query-profiler.max-statements:30}")
+    private int maxStatements;
+
+    @Value("${query-profiler.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            RequestQueryStats.end();
+            report(request, stats, elapsedMillis);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueryStats stats, long elapsedMillis) {
+        String method = request.getMethod();
+        String uri = endpoint(request);
+
+        DistributionSummary.builder("dormigo.db.statements")
+                .description("JDBC statements executed per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("dormigo.db.time")
+                .description("Time spent in JDBC per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getQueryNanos(), TimeUnit.NANOSECONDS);
+
+        List<Map.Entry<String, Integer>> repeated = stats.repeatedShapes(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("dormigo.db.n_plus_one")
+                    .description("Requests that repeated one statement shape more than the threshold")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        boolean slow = elapsedMillis >= slowRequestMillis;
+        boolean chatty = stats.getStatements() > maxStatements;
+        if (slow || chatty || !repeated.isEmpty()) {
+            log.warn("{} {} took {} ms with {} statements ({} ms in JDBC){}{}{}",
+                    method, uri, elapsedMillis, stats.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getQueryNanos()),
+                    slow ? " [slow]" : "",
+                    chatty ? " [too many statements]" : "",
+                    repeated.isEmpty() ? "" : " [possible N+1]\n" + describe(repeated));
+        }
+    }
+
+    private static String describe(List<Map.Entry<String, Integer>> repeated) {
+        return repeated.stream()
+                .limit(5)
+                .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+}
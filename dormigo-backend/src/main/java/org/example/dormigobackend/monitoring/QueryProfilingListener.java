@@ -0,0 +1,67 @@
+package org.example.dormigobackend.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/*
+ * Feeds every executed statement into the request's RequestQueryStats
+ * and logs single statements slower than the slow-query threshold.
+ * Hibernate binds parameters, so the SQL text already is the statement "shape";
+ * only whitespace and IN-list lengths are normalised.
+ *
+ * Timing uses its own nanoTime pair: ExecutionInfo.getElapsedTime() is whole
+ * milliseconds, which rounds every sub-millisecond statement down to zero.
+ * */
+@Slf4j
+public class QueryProfilingListener implements QueryExecutionListener {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)+\\)");
+    private static final String STARTED_AT = QueryProfilingListener.class.getName() + ".startedAt";
+
+    private final long slowQueryMillis;
+
+    public QueryProfilingListener(long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long elapsedNanos = startedAt != null
+                ? System.nanoTime() - startedAt
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        RequestQueryStats stats = RequestQueryStats.current();
+
+        // One execution (a batch may carry several statements) is one round trip's worth of time
+        if (stats != null) {
+            stats.addQueryNanos(elapsedNanos);
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            String shape = shape(queryInfo.getQuery());
+            if (stats != null) {
+                stats.record(shape);
+            }
+            if (elapsedMillis >= slowQueryMillis) {
+                log.warn("Slow query ({} ms, batch size {}): {}", elapsedMillis, execInfo.getBatchSize(), shape);
+            }
+        }
+    }
+
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(collapsed).replaceAll("(?...)");
+    }
+}
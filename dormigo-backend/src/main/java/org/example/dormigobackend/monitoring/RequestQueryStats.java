@@ -0,0 +1,57 @@
+package org.example.dormigobackend.monitoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * JDBC statements issued by the current request thread.
+ * Opened by QueryProfilingFilter, filled by QueryProfilingListener.
+ * */
+public class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long queryNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql) {
+        statements++;
+        shapes.merge(sql, 1, Integer::sum);
+    }
+
+    void addQueryNanos(long elapsedNanos) {
+        queryNanos += elapsedNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getQueryNanos() {
+        return queryNanos;
+    }
+
+    /* Statement shapes executed more than threshold times, most repeated first */
+    List<Map.Entry<String, Integer>> repeatedShapes(int threshold) {
+        return shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.dormigobackend.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/*
+ * Endpoint groups and their limits (rate-limit.{group}.capacity / refill-per-minute).
+ * auth and login-email guard the BCrypt work behind /api/auth; login-email is checked
+ * in AuthService, once the email is known. /api/auth/refresh and /logout hash nothing
+ * and only accept a random refresh token, so they stay outside the per-IP auth budget:
+ * a dorm sharing one NAT address must not lock every session out of renewing.
+ * */
+@Configuration
+@Slf4j
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RedisRateLimiter rateLimiter;
+    private final RateLimitRule auth;
+    private final RateLimitRule search;
+    private final RateLimitRule uploads;
+
+    public RateLimitConfig(RedisRateLimiter rateLimiter,
+                           @Value("${rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${rate-limit.auth.refill-per-minute:10}") double authRefill,
+                           @Value("${rate-limit.search.capacity:60}") int searchCapacity,
+                           @Value("${rate-limit.search.refill-per-minute:120}") double searchRefill,
+                           @Value("${rate-limit.uploads.capacity:20}") int uploadsCapacity,
+                           @Value("${rate-limit.uploads.refill-per-minute:20}") double uploadsRefill) {
+        this.rateLimiter = rateLimiter;
+        this.auth = new RateLimitRule("auth", authCapacity, authRefill);
+        this.search = new RateLimitRule("search", searchCapacity, searchRefill);
+        this.uploads = new RateLimitRule("uploads", uploadsCapacity, uploadsRefill);
+    }
+
+    @Bean
+    public RateLimitRule loginEmailRateLimit(@Value("${rate-limit.login-email.capacity:5}") int capacity,
+                                             @Value("${rate-limit.login-email.refill-per-minute:5}") double refill) {
+        return new RateLimitRule("login-email", capacity, refill);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, auth, Set.of()))
+                .addPathPatterns("/api/auth/**")
+                .excludePathPatterns("/api/auth/refresh", "/api/auth/logout");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, search, Set.of(HttpMethod.GET)))
+                .addPathPatterns("/api/products/public/search", "/api/products/public/advance-search",
+                        "/api/products/public/price-range", "/api/products/public/condition/**");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, uploads, Set.of(HttpMethod.POST)))
+                .addPathPatterns("/api/products/*/images");
+        log.info("Rate limits ✅ {}, {}, {}", auth, search, uploads);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.dormigobackend.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/*
+ * Per-IP limit for one endpoint group. Runs before the controller, so a refused
+ * request costs no BCrypt, query or upload work;
+ * the TooManyRequestsException becomes a 429 in GlobalExceptionHandler.
+ * The key is the connection's remote address, never a forwarding header the client
+ * can rotate for a fresh bucket; behind a trusted proxy Tomcat's RemoteIpValve
+ * (server.forward-headers-strategy=native) has already put the client's address there.
+ * An empty methods set limits every method.
+ * */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RedisRateLimiter rateLimiter;
+    private final RateLimitRule rule;
+    private final Set<HttpMethod> methods;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!methods.isEmpty() && !methods.contains(HttpMethod.valueOf(request.getMethod()))) {
+            return true;
+        }
+        rateLimiter.check(rule, request.getRemoteAddr());
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.dormigobackend.ratelimit;
+
+/*
+ * A token bucket: up to capacity requests at once, refilled at refillPerMinute.
+ * A node leases leaseSize tokens from Redis at a time and spends them locally.
+ * Small buckets lease one token, so every check is a Redis round trip: intended for
+ * auth (capacity 10), where the round trip is noise next to BCrypt and a bigger lease
+ * would strand a tenth of the bucket on each node.
+ * */
+public record RateLimitRule(String name, int capacity, double refillPerMinute) {
+
+    public double refillPerMilli() {
+        return refillPerMinute / 60_000d;
+    }
+
+    public int leaseSize() {
+        return Math.max(1, capacity / 10);
+    }
+}
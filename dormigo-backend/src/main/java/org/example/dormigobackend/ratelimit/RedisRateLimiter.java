@@ -0,0 +1,132 @@
+package org.example.dormigobackend.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+ * Token buckets shared by all nodes, kept in Redis and updated by one Lua script
+ * (refill, take, write back) so concurrent checks never race.
+ *
+ * dormigo::rate:{rule}:{key}  hash  tokens, ts (Redis server time, ms)
+ *
+ * Each node fronts Redis with a local entry per key:
+ * - a lease: the script hands out up to leaseSize tokens at once, spent locally
+ *   until used up or LEASE_TTL passes (an unused lease is simply lost, so the
+ *   shared limit is never exceeded, only slightly tightened)
+ * - a block: after a refusal the key is refused locally until the script's
+ *   retry-after, so a flood against one key costs one round trip per refill
+ *
+ * If Redis is unreachable requests are let through: the limiter protects
+ * capacity, it must not take the API down with it.
+ * */
+@Component
+@Slf4j
+public class RedisRateLimiter {
+
+    private static final String KEY_PREFIX = "dormigo::rate:";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(1);
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Object>> TAKE = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refill = tonumber(ARGV[2])
+            local want = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill)
+            local granted = math.min(want, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / refill) + 1000)
+            local retry = 0
+            if granted == 0 then retry = math.ceil((1 - tokens) / refill) end
+            return {granted, retry}
+            """, (Class<List<Object>>) (Class<?>) List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Cache<String, LocalBucket> local = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .build();
+
+    public RedisRateLimiter(StringRedisTemplate stringRedisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /* Takes one token for key, or throws TooManyRequestsException with the seconds to wait */
+    public void check(RateLimitRule rule, String key) {
+        if (!enabled) {
+            return;
+        }
+        String bucketKey = rule.name() + ":" + key;
+        LocalBucket bucket = local.get(bucketKey, k -> new LocalBucket());
+
+        synchronized (bucket) {
+            long now = System.currentTimeMillis();
+            if (bucket.blockedUntil > now) {
+                reject(rule, "local", bucket.blockedUntil - now);
+            }
+            if (bucket.leased > 0 && bucket.leaseExpiresAt > now) {
+                bucket.leased--;
+                return;
+            }
+
+            List<Object> result;
+            try {
+                result = stringRedisTemplate.execute(TAKE, List.of(KEY_PREFIX + bucketKey),
+                        String.valueOf(rule.capacity()),
+                        String.valueOf(rule.refillPerMilli()),
+                        String.valueOf(rule.leaseSize()));
+            } catch (Exception e) {
+                log.warn("Rate limiter unavailable, letting {} through ❌", bucketKey, e);
+                return;
+            }
+
+            long granted = (Long) result.get(0);
+            if (granted == 0) {
+                long retryAfterMillis = (Long) result.get(1);
+                bucket.blockedUntil = now + retryAfterMillis;
+                reject(rule, "redis", retryAfterMillis);
+            }
+            bucket.leased = (int) granted - 1;
+            bucket.leaseExpiresAt = now + LEASE_TTL.toMillis();
+        }
+    }
+
+    private void reject(RateLimitRule rule, String decidedBy, long retryAfterMillis) {
+        Counter.builder("dormigo.ratelimit.rejected")
+                .description("Requests refused by a rate limit")
+                .tag("rule", rule.name())
+                .tag("decided_by", decidedBy)
+                .register(meterRegistry)
+                .increment();
+        throw new TooManyRequestsException("Too many requests, please slow down",
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    private static final class LocalBucket {
+        private int leased;
+        private long leaseExpiresAt;
+        private long blockedUntil;
+    }
+}
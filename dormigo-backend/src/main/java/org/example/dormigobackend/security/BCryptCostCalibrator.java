@@ -0,0 +1,48 @@
+package org.example.dormigobackend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/*
+ * Picks the BCrypt cost for this machine: the highest one in [minCost, maxCost]
+ * whose verification is estimated to stay within the target. Each cost step
+ * doubles the work, so only minCost is measured (best of a few runs after a warm-up).
+ *
+ * Never goes below minCost, so a slow machine keeps today's strength. Nodes on
+ * different hardware may pick different costs; stored hashes are only ever
+ * upgraded on login, never downgraded, so that is harmless.
+ * */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE = "calibration-sample-password";
+    private static final int RUNS = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(int minCost, int maxCost, Duration target) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minCost);
+        String hash = encoder.encode(SAMPLE);
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE, hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int cost = minCost;
+        long estimate = fastest;
+        while (cost < maxCost && estimate * 2 <= target.toNanos()) {
+            cost++;
+            estimate *= 2;
+        }
+
+        log.info("🔐 BCrypt cost {} (~{} ms per hash, cost {} measured at {} ms, target {} ms)",
+                cost, estimate / 1_000_000, minCost, fastest / 1_000_000, target.toMillis());
+        return cost;
+    }
+}
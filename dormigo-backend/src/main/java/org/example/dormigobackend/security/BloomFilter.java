@@ -0,0 +1,75 @@
+package org.example.dormigobackend.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Fixed-size Bloom filter over (kind, value) pairs, safe for concurrent use.
+ * add and mightContain hash the characters in place: no byte[] or String is
+ * built, so the per-request check allocates nothing.
+ *
+ * One 64-bit FNV-1a pass, two derived hashes (Kirsch-Mitzenmacher) for the k probes.
+ * */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int probes;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * ln2));
+    }
+
+    void add(char kind, CharSequence value) {
+        long hash = hash(kind, value);
+        long h1 = mix(hash);
+        long h2 = mix(hash + GOLDEN) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(char kind, CharSequence value) {
+        long hash = hash(kind, value);
+        long h1 = mix(hash);
+        long h2 = mix(hash + GOLDEN) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(char kind, CharSequence value) {
+        long hash = (FNV_OFFSET ^ kind) * FNV_PRIME;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /*MurmurHash3 finalizer*/
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.dormigobackend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.exception.TooManyRequestsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/*
+ * Runs every hash and verification of the wrapped encoder on a small pool of its own.
+ * BCrypt is pure CPU: left on request threads, a login surge takes every Tomcat
+ * thread and every core. Here at most `threads` hashes run at once, the request
+ * thread just waits for its turn.
+ *
+ * Admission: a full queue, or a wait longer than maxWait, answers 429 straight away
+ * rather than letting the backlog grow (the work is cancelled if it hasn't started).
+ *
+ * dormigo.password.queue.wait   time from submit until a hashing thread picks it up
+ * dormigo.password.hash         time spent hashing, by op (encode / matches)
+ * dormigo.password.rejected     by reason (queue_full / timeout)
+ * */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer queueWait;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("dormigo.password.queue.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.queueFull = rejectedCounter("queue_full", meterRegistry);
+        this.timedOut = rejectedCounter("timeout", meterRegistry);
+        Gauge.builder("dormigo.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /*Only parses the stored hash, no need to queue it*/
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw new TooManyRequestsException("Too many sign-ins in progress, please retry", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timedOut.increment();
+            throw new TooManyRequestsException("Too many sign-ins in progress, please retry", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static Timer hashTimer(String op, MeterRegistry meterRegistry) {
+        return Timer.builder("dormigo.password.hash")
+                .description("Time spent computing a password hash")
+                .tag("op", op)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("dormigo.password.rejected")
+                .description("Password hashes refused because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.dormigobackend.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/*
+ * Authentication built from a verified access token alone. Authorization only
+ * needs the name and the roles, both in the token; the UserDetails (a DB read)
+ * is loaded the first time something asks for the principal, e.g. an
+ * @AuthenticationPrincipal argument, and then kept for the rest of the request.
+ *
+ * equals, hashCode and toString stay off the principal so logging or comparing
+ * the token never triggers the load.
+ * */
+public class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private final String email;
+    private final SingletonSupplier<UserDetails> principal;
+
+    public JwtAuthentication(String email,
+                             Collection<? extends GrantedAuthority> authorities,
+                             Supplier<UserDetails> principalLoader) {
+        super(authorities);
+        this.email = email;
+        this.principal = SingletonSupplier.of(principalLoader);
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal.obtain();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("A JwtAuthentication is only ever created authenticated");
+        }
+        super.setAuthenticated(false);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof JwtAuthentication that
+                && email.equals(that.email)
+                && getAuthorities().equals(that.getAuthorities());
+    }
+
+    @Override
+    public int hashCode() {
+        return email.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Name=" + email + ", Authorities=" + getAuthorities() + "]";
+    }
+}
@@ -1,16 +1,20 @@
 package org.example.dormigobackend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.example.dormigobackend.exception.UnauthorizedException;
+import org.example.dormigobackend.logging.RequestMdcFilter;
+import org.slf4j.MDC;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -18,16 +22,58 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
+/*
+ * Authenticates requests from the Bearer access token.
+ *
+ * Requests to endpoints anyone may call (PUBLIC_ENDPOINTS) skip all of it: the
+ * token isn't even parsed, so browsing the catalog with or without a token costs
+ * the same. A client that wants the authenticated variant of a public GET asks
+ * for it with ?personalized=true (a query parameter, so shared caches keep the
+ * two apart). Skipping only ever makes a request anonymous; what it may reach is
+ * still decided by SecurityConfig, so a pattern listed here by mistake gives a 401,
+ * never access.
+ *
+ * Everything else gets a JwtAuthentication built from the verified claims; the
+ * user row is only read if the request asks for the principal.
+ * */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String PERSONALIZED_PARAM = "personalized";
+
+    private static final Set<String> READS = Set.of("GET", "HEAD");
+    private static final PathTrie PUBLIC_ENDPOINTS = PathTrie.builder()
+            .add("/api/auth/**", Set.of())
+            .add("/api/products/public/**", READS)
+            .add("/api/products/*/images", READS)
+            .add("/api/products/*/images/primary", READS)
+            .add("/api/category/public/**", READS)
+            .add("/api/files/**", READS)
+            .add("/actuator/health/**", READS)
+            .add("/error", Set.of())
+            .build();
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!PUBLIC_ENDPOINTS.matches(request.getMethod(), request.getRequestURI())) {
+            return false;
+        }
+        boolean skip = !"true".equals(request.getParameter(PERSONALIZED_PARAM));
+        if (skip) {
+            log.trace("Public endpoint, authentication skipped: {}", request.getRequestURI());
+        }
+        return skip;
+    }
 
     @Override
     public void doFilterInternal(HttpServletRequest request,
@@ -35,27 +81,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                  FilterChain filterChain)throws ServletException, IOException {
         try{
             String jwt = getJwtFromRequest(request);
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String email = jwtTokenProvider.generateEmailFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                String role = jwtTokenProvider.getRole(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseClaims(jwt) : null;
+            if (claims != null && !isRevoked(claims)) {
+                String email = claims.getSubject();
+                String role = claims.get("role", String.class);
                 List<SimpleGrantedAuthority> authorities = Arrays.stream(role.split(","))
                         .map(SimpleGrantedAuthority::new)
                         .toList();
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails,
-                        null, authorities);
-
+                JwtAuthentication authentication = new JwtAuthentication(email, authorities, () -> loadUser(email));
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                String requestPath = request.getRequestURI();
-                if (isPublicEndpoint(requestPath)) {
-                    log.debug("Public endpoint accessed: {}", requestPath);
-                    filterChain.doFilter(request, response);
-                    return;
-                }
 
+                Long userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+                if (userId != null) {
+                    MDC.put(RequestMdcFilter.USER_ID, String.valueOf(userId));
+                }
             }
         }
         catch (Exception e){
@@ -66,13 +107,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     }
 
-    private boolean isPublicEndpoint(String path) {
-        return path.startsWith("/api/auth/") ||
-                path.startsWith("/api/files/") ||           // ✅ CRITICAL: Allow file access
-                path.startsWith("/api/products/public/") ||
-                path.startsWith("/api/categories/public/") ||
-                path.equals("/actuator/health") ||
-                path.equals("/error");
+    /*Runs on first use of the principal; deactivation also revokes the user's tokens, so this rarely fails*/
+    private UserDetails loadUser(String email) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (userDetails instanceof UserPrincipal userPrincipal) {
+                MDC.put(RequestMdcFilter.USER_ID, String.valueOf(userPrincipal.getId()));
+            }
+            return userDetails;
+        } catch (UsernameNotFoundException e) {
+            throw new UnauthorizedException("User account is no longer active");
+        }
+    }
+
+    /*Logged out session or deactivated user; a local Bloom filter answers nearly every request*/
+    private boolean isRevoked(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        boolean revoked = tokenRevocationService.isRevoked(
+                claims.get(JwtTokenProvider.SESSION_ID_CLAIM, String.class),
+                claims.getSubject(),
+                issuedAt == null ? 0 : issuedAt.getTime());
+        if (revoked) {
+            log.debug("Revoked token presented for {}", claims.getSubject());
+        }
+        return revoked;
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
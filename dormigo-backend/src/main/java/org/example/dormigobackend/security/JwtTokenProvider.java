@@ -5,6 +5,7 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -28,7 +29,11 @@ public class JwtTokenProvider {
     * JWT Token for authenticated users
     * */
 
-    public String generateToken(Authentication authentication) {
+    public static final String SESSION_ID_CLAIM = "sid";
+    public static final String USER_ID_CLAIM = "uid";
+
+    /*Access token: short-lived, tied to the refresh-token session it was issued under*/
+    public String generateToken(Authentication authentication, String sessionId) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
@@ -41,6 +46,9 @@ public class JwtTokenProvider {
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
                 .claim("role", role)
+                .claim(SESSION_ID_CLAIM, sessionId)
+                // Lets the filter tag logs with the user without loading them
+                .claim(USER_ID_CLAIM, userDetails instanceof UserPrincipal principal ? principal.getId() : null)
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
@@ -88,6 +96,24 @@ public class JwtTokenProvider {
     }
 
 
+    /*Verified claims, or null for an invalid or expired token: one parse per request*/
+    public @Nullable Claims parseClaims(String token) {
+        try {
+            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            return Jwts.parser()
+                    .verifyWith(key)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public long getAccessTokenTtlSeconds() {
+        return jwtExpiration / 1000;
+    }
+
     /*  Token Validation  */
     public boolean validateToken(String token){
         try{
@@ -0,0 +1,132 @@
+package org.example.dormigobackend.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Segment trie over Ant-style path patterns: literal segments, "*" for exactly one
+ * segment and a trailing "**" for anything below. Each pattern carries the HTTP
+ * methods it applies to (empty: any method).
+ *
+ * Built once; a lookup walks the path in place (no split, no substrings) and
+ * compares segments with regionMatches, so it allocates nothing.
+ * Literal segments win over "*", which wins over "**".
+ * */
+final class PathTrie {
+
+    private final Node root;
+
+    private PathTrie(Node root) {
+        this.root = root;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    boolean matches(String method, String path) {
+        return match(root, path, path.startsWith("/") ? 1 : 0, method);
+    }
+
+    private static boolean match(Node node, String path, int from, String method) {
+        if (node.anyBelow != null && node.anyBelow.allows(method)) {
+            return true;
+        }
+        if (from > path.length()) {
+            return node.terminal != null && node.terminal.allows(method);
+        }
+
+        int end = path.indexOf('/', from);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - from;
+        if (length == 0 && end == path.length()) {
+            // Trailing slash: "/api/files/" is the same endpoint as "/api/files"
+            return node.terminal != null && node.terminal.allows(method);
+        }
+
+        for (int i = 0; i < node.literals.length; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == length && path.regionMatches(from, literal, 0, length)
+                    && match(node.children[i], path, end + 1, method)) {
+                return true;
+            }
+        }
+        return node.wildcard != null && length > 0 && match(node.wildcard, path, end + 1, method);
+    }
+
+    private record Methods(String[] names) {
+
+        boolean allows(String method) {
+            if (names.length == 0) {
+                return true;
+            }
+            for (String name : names) {
+                if (name.equals(method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+        private String[] literals = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private Methods terminal;
+        private Methods anyBelow;
+
+        private Node child(String segment) {
+            if ("*".equals(segment)) {
+                return wildcard == null ? wildcard = new Node() : wildcard;
+            }
+            int index = Arrays.asList(literals).indexOf(segment);
+            if (index >= 0) {
+                return children[index];
+            }
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            literals[literals.length - 1] = segment;
+            return children[children.length - 1] = new Node();
+        }
+    }
+
+    static final class Builder {
+
+        private final Node root = new Node();
+
+        private Builder() {
+        }
+
+        Builder add(String pattern, Set<String> methods) {
+            List<String> segments = new ArrayList<>(Arrays.asList(pattern.replaceAll("^/+|/+$", "").split("/")));
+            Methods allowed = new Methods(methods.toArray(String[]::new));
+
+            Node node = root;
+            boolean anyBelow = !segments.isEmpty() && "**".equals(segments.get(segments.size() - 1));
+            if (anyBelow) {
+                segments.remove(segments.size() - 1);
+            }
+            for (String segment : segments) {
+                if (segment.isEmpty() || "**".equals(segment)) {
+                    throw new IllegalArgumentException("Unsupported path pattern: " + pattern);
+                }
+                node = node.child(segment);
+            }
+            if (anyBelow) {
+                node.anyBelow = allowed;
+            } else {
+                node.terminal = allowed;
+            }
+            return this;
+        }
+
+        PathTrie build() {
+            return new PathTrie(root);
+        }
+    }
+}
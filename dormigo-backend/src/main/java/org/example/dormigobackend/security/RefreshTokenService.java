@@ -0,0 +1,177 @@
+package org.example.dormigobackend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.exception.UnauthorizedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Rotating refresh tokens. A login starts a session; every refresh spends the
+ * presented token and hands out the next one in the same session.
+ *
+ * Token: "{sessionId}.{random}", 256 random bits; only its SHA-256 is stored.
+ *
+ * dormigo::refresh:{sha256}            hash    email, used (0/1)
+ * dormigo::refresh-session:{sessionId}  string  email
+ * dormigo::refresh-user:{email}         set     the user's session ids
+ *
+ * All three expire jwt.refresh-expiration after the last refresh. A spent token
+ * presented again means it was copied: the whole session is ended and its
+ * access tokens revoked, for the thief and the owner alike. The exception is a
+ * token spent less than jwt.refresh-reuse-grace-ms ago: two tabs sharing one
+ * token can both hit a 401 and refresh, so the loser is only refused, and picks
+ * up the pair the winner stored.
+ * */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final String TOKEN_KEY = "dormigo::refresh:";
+    private static final String SESSION_KEY = "dormigo::refresh-session:";
+    private static final String USER_KEY = "dormigo::refresh-user:";
+    private static final int TOKEN_BYTES = 32;
+    private static final int SESSION_ID_BYTES = 16;
+
+    /*Spend the token: {'ok', email}, {'raced', email} (spent within the grace ms), {'reused', email} or {'invalid'}*/
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Object>> SPEND = new DefaultRedisScript<>("""
+            local token = redis.call('HMGET', KEYS[1], 'email', 'used', 'spent_at')
+            if not token[1] then return {'invalid'} end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            if token[2] == '1' then
+                if now - (tonumber(token[3]) or 0) <= tonumber(ARGV[1]) then return {'raced', token[1]} end
+                return {'reused', token[1]}
+            end
+            if redis.call('EXISTS', KEYS[2]) == 0 then return {'invalid'} end
+            redis.call('HSET', KEYS[1], 'used', '1', 'spent_at', now)
+            return {'ok', token[1]}
+            """, (Class<List<Object>>) (Class<?>) List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration refreshTtl;
+    private final long reuseGraceMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(StringRedisTemplate stringRedisTemplate,
+                               TokenRevocationService tokenRevocationService,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshTtlMillis,
+                               @Value("${jwt.refresh-reuse-grace-ms:10000}") long reuseGraceMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTtl = Duration.ofMillis(refreshTtlMillis);
+        this.reuseGraceMillis = reuseGraceMillis;
+    }
+
+    public IssuedToken startSession(String email) {
+        String sessionId = randomToken(SESSION_ID_BYTES);
+        stringRedisTemplate.opsForValue().set(SESSION_KEY + sessionId, email, refreshTtl);
+        stringRedisTemplate.opsForSet().add(USER_KEY + email, sessionId);
+        stringRedisTemplate.expire(USER_KEY + email, refreshTtl);
+        return new IssuedToken(sessionId, email, issue(sessionId, email));
+    }
+
+    /* Spends refreshToken and returns the session's next one, or throws UnauthorizedException */
+    public IssuedToken rotate(String refreshToken) {
+        String sessionId = sessionIdOf(refreshToken);
+        List<Object> result = stringRedisTemplate.execute(SPEND,
+                List.of(TOKEN_KEY + sha256(refreshToken), SESSION_KEY + sessionId),
+                String.valueOf(reuseGraceMillis));
+
+        String status = (String) result.get(0);
+        if ("raced".equals(status)) {
+            // Another tab or a retried request got there first; the session stays
+            log.debug("Refresh token of session {} was spent {} ms ago or less, refusing it", sessionId, reuseGraceMillis);
+            throw new UnauthorizedException("Refresh token was already used");
+        }
+        if ("reused".equals(status)) {
+            String email = (String) result.get(1);
+            log.warn("⚠️ Refresh token reused for session {} of {}, ending the session", sessionId, email);
+            endSession(sessionId, email);
+            throw new UnauthorizedException("Session has ended, please log in again");
+        }
+        if (!"ok".equals(status)) {
+            throw new UnauthorizedException("Invalid or expired refresh token");
+        }
+
+        String email = (String) result.get(1);
+        stringRedisTemplate.expire(SESSION_KEY + sessionId, refreshTtl);
+        stringRedisTemplate.expire(USER_KEY + email, refreshTtl);
+        return new IssuedToken(sessionId, email, issue(sessionId, email));
+    }
+
+    /* Logout: ends the session the token belongs to, whether or not it was already spent */
+    public void endSession(String refreshToken) {
+        String sessionId = sessionIdOf(refreshToken);
+        Object email = stringRedisTemplate.opsForHash().get(TOKEN_KEY + sha256(refreshToken), "email");
+        if (email == null) {
+            throw new UnauthorizedException("Invalid or expired refresh token");
+        }
+        endSession(sessionId, email.toString());
+    }
+
+    /* Deactivation: every session of the user, and every access token issued so far */
+    public void endAllSessions(String email) {
+        Set<String> sessionIds = stringRedisTemplate.opsForSet().members(USER_KEY + email);
+        if (sessionIds != null && !sessionIds.isEmpty()) {
+            stringRedisTemplate.delete(sessionIds.stream().map(id -> SESSION_KEY + id).toList());
+        }
+        stringRedisTemplate.delete(USER_KEY + email);
+        tokenRevocationService.revokeUser(email);
+    }
+
+    private void endSession(String sessionId, String email) {
+        stringRedisTemplate.delete(SESSION_KEY + sessionId);
+        stringRedisTemplate.opsForSet().remove(USER_KEY + email, sessionId);
+        tokenRevocationService.revokeSession(sessionId);
+    }
+
+    private String issue(String sessionId, String email) {
+        String token = sessionId + "." + randomToken(TOKEN_BYTES);
+        String key = TOKEN_KEY + sha256(token);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of("email", email, "used", "0"));
+        stringRedisTemplate.expire(key, refreshTtl);
+        return token;
+    }
+
+    private static String sessionIdOf(String refreshToken) {
+        int dot = refreshToken.indexOf('.');
+        if (dot <= 0) {
+            throw new UnauthorizedException("Invalid or expired refresh token");
+        }
+        return refreshToken.substring(0, dot);
+    }
+
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        random.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record IssuedToken(String sessionId, String email, String refreshToken) {
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.dormigobackend.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/*
+ * Revoked access tokens, checked on every authenticated request.
+ *
+ * dormigo::revocations          zset     "s:{sessionId}" / "u:{email}" -> revoked at (epoch ms)
+ * dormigo::revocations:events   channel  the same members, as they are revoked
+ *
+ * Every node keeps the members of the last access-token lifetime in a local
+ * Bloom filter, fed by the channel and loaded from the zset at startup. The
+ * per-request check is a couple of bit lookups: a miss (nearly every request)
+ * is definitely not revoked. A hit is confirmed against the zset, since it may
+ * be a false positive or a token issued after the revocation (a user
+ * re-activated and logged in again).
+ *
+ * Bloom filters can't forget, so two generations are kept and the older one is
+ * dropped every access-token lifetime: an entry is kept at least that long,
+ * and by then every token it was meant to stop has expired anyway.
+ * */
+@Service
+@Slf4j
+public class TokenRevocationService implements MessageListener {
+
+    private static final String REVOCATIONS_KEY = "dormigo::revocations";
+    private static final String CHANNEL = "dormigo::revocations:events";
+    private static final char SESSION = 's';
+    private static final char USER = 'u';
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long accessTokenTtlMillis;
+    private final int expectedEntries;
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public TokenRevocationService(StringRedisTemplate stringRedisTemplate,
+                                  RedisMessageListenerContainer redisMessageListenerContainer,
+                                  @Value("${jwt.expiration}") long accessTokenTtlMillis,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        this.expectedEntries = expectedEntries;
+        this.current = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        this.previous = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PostConstruct
+    public void loadRecent() {
+        try {
+            Set<String> recent = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(REVOCATIONS_KEY, System.currentTimeMillis() - accessTokenTtlMillis, Double.POSITIVE_INFINITY);
+            if (recent != null) {
+                recent.forEach(this::addLocally);
+                log.info("Loaded {} recent token revocations", recent.size());
+            }
+        } catch (Exception e) {
+            log.warn("Couldn't load recent token revocations ❌", e);
+        }
+    }
+
+    public void revokeSession(String sessionId) {
+        revoke(SESSION + ":" + sessionId);
+    }
+
+    public void revokeUser(String email) {
+        revoke(USER + ":" + email);
+    }
+
+    /* True if the session, or every token of the user issued up to now, was revoked after issuedAtMillis */
+    public boolean isRevoked(@Nullable String sessionId, String email, long issuedAtMillis) {
+        boolean maybeSession = sessionId != null && mightContain(SESSION, sessionId);
+        boolean maybeUser = mightContain(USER, email);
+        if (!maybeSession && !maybeUser) {
+            return false;
+        }
+        try {
+            return (maybeSession && revokedSince(SESSION + ":" + sessionId, issuedAtMillis))
+                    || (maybeUser && revokedSince(USER + ":" + email, issuedAtMillis));
+        } catch (Exception e) {
+            // Only reached for likely-revoked tokens: refuse rather than let one through
+            log.warn("Couldn't confirm token revocation, refusing the token ❌", e);
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte @Nullable [] pattern) {
+        addLocally(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(initialDelayString = "${jwt.expiration}", fixedDelayString = "${jwt.expiration}")
+    public void rotate() {
+        previous = current;
+        current = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        try {
+            stringRedisTemplate.opsForZSet().removeRangeByScore(REVOCATIONS_KEY,
+                    Double.NEGATIVE_INFINITY, System.currentTimeMillis() - 2 * accessTokenTtlMillis);
+        } catch (Exception e) {
+            log.warn("Couldn't prune old token revocations", e);
+        }
+    }
+
+    private void revoke(String member) {
+        stringRedisTemplate.opsForZSet().add(REVOCATIONS_KEY, member, System.currentTimeMillis());
+        addLocally(member);
+        stringRedisTemplate.convertAndSend(CHANNEL, member);
+    }
+
+    private boolean mightContain(char kind, String value) {
+        return current.mightContain(kind, value) || previous.mightContain(kind, value);
+    }
+
+    private boolean revokedSince(String member, long issuedAtMillis) {
+        Double revokedAt = stringRedisTemplate.opsForZSet().score(REVOCATIONS_KEY, member);
+        return revokedAt != null && revokedAt >= issuedAtMillis;
+    }
+
+    private void addLocally(String member) {
+        if (member.length() > 2 && member.charAt(1) == ':') {
+            current.add(member.charAt(0), member.subSequence(2, member.length()));
+        }
+    }
+}
@@ -5,13 +5,15 @@ import org.example.dormigobackend.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -25,4 +27,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
         return UserPrincipal.create(user);
     }
+
+    /*Called by DaoAuthenticationProvider after a successful login whose stored hash
+     * needs upgrading (legacy unprefixed hash or lower BCrypt cost)*/
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof UserPrincipal principal) {
+            principal.setPassword(newPassword);
+        }
+        return user;
+    }
 }
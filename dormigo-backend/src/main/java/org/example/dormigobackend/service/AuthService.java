@@ -9,7 +9,11 @@ import org.example.dormigobackend.dto.response.AuthResponse;
 import org.example.dormigobackend.dto.response.UserResponse;
 import org.example.dormigobackend.exception.ResourceAlredyExistsException;
 import org.example.dormigobackend.mapper.UserMapper;
+import org.example.dormigobackend.ratelimit.RateLimitRule;
+import org.example.dormigobackend.ratelimit.RedisRateLimiter;
+import org.example.dormigobackend.exception.UnauthorizedException;
 import org.example.dormigobackend.security.JwtTokenProvider;
+import org.example.dormigobackend.security.RefreshTokenService;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
@@ -19,11 +23,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +42,10 @@ public class AuthService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final RedisRateLimiter rateLimiter;
+    private final RateLimitRule loginEmailRateLimit;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsService userDetailsService;
 
     @Transactional
     public UserResponse signUp(RegisterRequest request){
@@ -62,41 +74,78 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest request, String ipAddress, String device){
-        log.info("🔐 Login attempt for: {}", request.getEmail());
+        log.debug("🔐 Login attempt for: {}", request.getEmail());
+        // Per account, on top of the per-IP limit: a credential-stuffing run spread over many IPs
+        rateLimiter.check(loginEmailRateLimit, request.getEmail().trim().toLowerCase(Locale.ROOT));
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
 
         );
-        log.info("✅ Authentication successful");
-        log.info("🔍 Authentication class: {}", authentication.getClass().getName());
-        log.info("🔍 Principal class: {}", authentication.getPrincipal().getClass().getName());
-        log.info("🔍 Authorities from authentication: {}", authentication.getAuthorities());
+        log.debug("✅ Authentication successful");
+        log.debug("🔍 Authentication class: {}", authentication.getClass().getName());
+        log.debug("🔍 Principal class: {}", authentication.getPrincipal().getClass().getName());
+        log.debug("🔍 Authorities from authentication: {}", authentication.getAuthorities());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String jwt = jwtTokenProvider.generateToken(authentication);
-        log.info("✅ JWT generated");
+        RefreshTokenService.IssuedToken session = refreshTokenService.startSession(request.getEmail());
+        String jwt = jwtTokenProvider.generateToken(authentication, session.sessionId());
+        log.debug("✅ JWT generated");
 
         User user = userRepository.findByEmail(request.getEmail()).orElseThrow(
                 () -> new ResourceAlredyExistsException("User not found"));
 
-        log.info("🔍 User from database - Role: {}", user.getRole());
-        log.info("🔍 User from database - ID: {}", user.getId());
+        log.debug("🔍 User from database - Role: {}", user.getRole());
+        log.debug("🔍 User from database - ID: {}", user.getId());
         String roleString = authentication.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
                                 .findFirst()
                                         .orElse("ROLE_STUDENT");
-        log.info("🔍 Role string from authentication: {}", roleString);
+        log.debug("🔍 Role string from authentication: {}", roleString);
         Role role = roleString.replace("ROLE_", "").equals("ADMIN")
                 ? Role.ADMIN
                 : Role.STUDENT;
-        log.info("🔍 Final role enum: {}", role);
+        log.debug("🔍 Final role enum: {}", role);
 
         emailService.sendLoginNotification(user, ipAddress, device, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")));
-        log.info("📤 Returning AuthResponse with role: {}", role);
-        return new AuthResponse(jwt, user.getId(),
+        log.info("✅ User {} logged in with role {}", user.getId(), role);
+        AuthResponse authResponse = new AuthResponse(jwt, user.getId(),
                 user.getEmail(), user.getFirstName(),
                 user.getLastName(), role);
+        authResponse.setRefreshToken(session.refreshToken());
+        authResponse.setExpiresIn(jwtTokenProvider.getAccessTokenTtlSeconds());
+        return authResponse;
+    }
+
+    /*Spends the refresh token: a new access token and the session's next refresh token*/
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.IssuedToken session = refreshTokenService.rotate(refreshToken);
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(session.email());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.endAllSessions(session.email());
+            throw new UnauthorizedException("Account is no longer active");
+        }
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        String jwt = jwtTokenProvider.generateToken(authentication, session.sessionId());
+
+        User user = userRepository.findByEmail(session.email()).orElseThrow(
+                () -> new UnauthorizedException("Account is no longer active"));
+        AuthResponse authResponse = new AuthResponse(jwt, user.getId(),
+                user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getRole());
+        authResponse.setRefreshToken(session.refreshToken());
+        authResponse.setExpiresIn(jwtTokenProvider.getAccessTokenTtlSeconds());
+        return authResponse;
+    }
+
+    /*Ends the session: its refresh token stops working and its access tokens are revoked*/
+    public void logout(String refreshToken) {
+        refreshTokenService.endSession(refreshToken);
+        log.debug("👋 Session ended");
     }
 
 }
@@ -15,6 +15,7 @@ import org.example.dormigobackend.exception.ForbiddenException;
 import org.example.dormigobackend.exception.ResourceNotFoundException;
 import org.example.dormigobackend.mapper.CartMapper;
 import org.example.dormigobackend.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "dormigo.service", histogram = true)
 public class CartService {
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
@@ -0,0 +1,242 @@
+package org.example.dormigobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.cache.CacheClearedEvent;
+import org.example.dormigobackend.dto.response.CategoryResponse;
+import org.example.dormigobackend.exception.ResourceNotFoundException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Fills the catalog caches before traffic has to: on startup and again after
+ * "products" or "categories" was cleared by a bulk @CacheEvict.
+ *
+ * - the category list
+ * - the first cache.warmup.product-pages pages of /api/products/public/all for each configured sort
+ * - the first page of every category
+ * - the cache.warmup.top-viewed most viewed products (see ProductViewTracker)
+ *
+ * Everything goes through the service proxies, so keys are exactly the ones
+ * @Cacheable computes and a key another node already filled is just a hit.
+ * Loads are submitted at most cache.warmup.loads-per-second to a small pool of
+ * their own; a run stops submitting at cache.warmup.max-duration.
+ * Clears within the debounce window are warmed by one run.
+ *
+ * Readiness (CacheWarmupHealthIndicator) waits for the first run only:
+ * a later eviction never takes the node out of rotation.
+ * */
+@Service
+@Slf4j
+public class CatalogCacheWarmer implements DisposableBean {
+
+    private static final String PRODUCTS = "products";
+    private static final String CATEGORIES = "categories";
+    private static final String DEFAULT_SORT_BY = "title";
+    private static final String DEFAULT_SORT_DIR = "ASC";
+
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final ProductViewTracker productViewTracker;
+
+    private final boolean enabled;
+    private final int productPages;
+    private final int pageSize;
+    private final List<String> sorts;
+    private final int topViewed;
+    private final long pauseNanos;
+    private final Duration debounce;
+    private final Duration maxDuration;
+
+    private final ScheduledExecutorService coordinator;
+    private final ThreadPoolExecutor loaders;
+    private final Set<String> pendingCaches = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile boolean warmedOnce;
+    private volatile boolean running;
+    private volatile @Nullable Run lastRun;
+
+    public CatalogCacheWarmer(ProductService productService,
+                              CategoryService categoryService,
+                              ProductViewTracker productViewTracker,
+                              @Value("${cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${cache.warmup.product-pages:3}") int productPages,
+                              @Value("${cache.warmup.page-size:20}") int pageSize,
+                              @Value("${cache.warmup.sorts:title:ASC,createdAt:DESC}") List<String> sorts,
+                              @Value("${cache.warmup.top-viewed:50}") int topViewed,
+                              @Value("${cache.warmup.threads:2}") int threads,
+                              @Value("${cache.warmup.loads-per-second:20}") int loadsPerSecond,
+                              @Value("${cache.warmup.debounce-ms:2000}") long debounceMillis,
+                              @Value("${cache.warmup.max-duration-ms:60000}") long maxDurationMillis) {
+        this.productService = productService;
+        this.categoryService = categoryService;
+        this.productViewTracker = productViewTracker;
+        this.enabled = enabled;
+        this.productPages = productPages;
+        this.pageSize = pageSize;
+        this.sorts = sorts;
+        this.topViewed = topViewed;
+        this.pauseNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, loadsPerSecond);
+        this.debounce = Duration.ofMillis(debounceMillis);
+        this.maxDuration = Duration.ofMillis(maxDurationMillis);
+
+        this.coordinator = Executors.newSingleThreadScheduledExecutor(daemonThreads("cache-warmer-"));
+        /*Bounded: when the loaders fall behind, the coordinator runs the load itself and slows down*/
+        this.loaders = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                daemonThreads("cache-warm-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!enabled) {
+            warmedOnce = true;
+            return;
+        }
+        request(Set.of(PRODUCTS, CATEGORIES), Duration.ZERO);
+    }
+
+    @EventListener
+    public void onCacheCleared(CacheClearedEvent event) {
+        if (enabled && (PRODUCTS.equals(event.cacheName()) || CATEGORIES.equals(event.cacheName()))) {
+            request(Set.of(event.cacheName()), debounce);
+        }
+    }
+
+    public boolean isWarmedOnce() {
+        return warmedOnce;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public @Nullable Run getLastRun() {
+        return lastRun;
+    }
+
+    private void request(Set<String> caches, Duration delay) {
+        // Only the first clear in a burst schedules a run; the rest join its pending set
+        pendingCaches.addAll(caches);
+        if (scheduled.compareAndSet(false, true)) {
+            coordinator.schedule(this::run, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run() {
+        scheduled.set(false);
+        List<String> caches = new ArrayList<>(pendingCaches);
+        pendingCaches.removeAll(caches);
+        if (caches.isEmpty()) {
+            return;
+        }
+
+        running = true;
+        Instant startedAt = Instant.now();
+        try {
+            Run run = warm(caches, startedAt);
+            lastRun = run;
+            if (run.failed() > 0 || run.skipped() > 0) {
+                log.warn("Cache warm-up of {} finished in {} ms: {} loaded, {} failed, {} skipped ⚠️",
+                        caches, run.millis(), run.loaded(), run.failed(), run.skipped());
+            } else {
+                log.info("Cache warm-up of {} finished in {} ms: {} loaded ✅", caches, run.millis(), run.loaded());
+            }
+        } catch (Exception e) {
+            log.warn("Cache warm-up of {} failed ❌", caches, e);
+        } finally {
+            running = false;
+            // A partial warm-up still beats holding the node out of rotation forever
+            warmedOnce = true;
+        }
+    }
+
+    private Run warm(List<String> caches, Instant startedAt) throws InterruptedException {
+        List<Callable<?>> loads = new ArrayList<>();
+        List<CategoryResponse> categories = categoryService.findAllCategories();
+
+        if (caches.contains(PRODUCTS)) {
+            for (String sort : sorts) {
+                String[] sortParts = sort.split(":");
+                String sortBy = sortParts[0];
+                String sortDir = sortParts.length > 1 ? sortParts[1] : DEFAULT_SORT_DIR;
+                for (int page = 0; page < productPages; page++) {
+                    int p = page;
+                    loads.add(() -> productService.getAllAvailableProducts(p, pageSize, sortBy, sortDir));
+                }
+            }
+            if (categories != null) {
+                for (CategoryResponse category : categories) {
+                    loads.add(() -> productService.getProductsByCategory(
+                            0, pageSize, category.getId(), DEFAULT_SORT_BY, DEFAULT_SORT_DIR));
+                }
+            }
+            for (Long productId : productViewTracker.topViewed(topViewed)) {
+                loads.add(() -> {
+                    try {
+                        return productService.getProductById(productId);
+                    } catch (ResourceNotFoundException e) {
+                        productViewTracker.forget(productId);
+                        throw e;
+                    }
+                });
+            }
+        }
+
+        Instant deadline = startedAt.plus(maxDuration);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<?> load : loads) {
+            if (Instant.now().isAfter(deadline)) {
+                break;
+            }
+            futures.add(loaders.submit(load));
+            LockSupport.parkNanos(pauseNanos);
+        }
+
+        int loaded = 1; // the category list
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, Duration.between(Instant.now(), deadline).toMillis()), TimeUnit.MILLISECONDS);
+                loaded++;
+            } catch (ExecutionException | TimeoutException e) {
+                future.cancel(true);
+                failed++;
+                log.debug("Cache warm-up load failed", e);
+            }
+        }
+
+        return new Run(startedAt, Duration.between(startedAt, Instant.now()).toMillis(),
+                loaded, failed, loads.size() - futures.size());
+    }
+
+    @Override
+    public void destroy() {
+        coordinator.shutdownNow();
+        loaders.shutdownNow();
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    public record Run(Instant startedAt, long millis, int loaded, int failed, int skipped) {
+    }
+}
@@ -10,6 +10,7 @@ import org.jspecify.annotations.Nullable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -20,9 +21,11 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final EntityCacheEvictor entityCacheEvictor;
 
     @Cacheable(value = "categories",
-    key = "'all'")
+    key = "'all'", sync = true)
+    @Transactional(readOnly = true)
     public @Nullable List<CategoryResponse> findAllCategories() {
         Collection<Category> categories = categoryRepository.findAll();
         return categories.stream().map(CategoryMapper::toResponse).collect(Collectors.toList());
@@ -33,7 +36,9 @@ public class CategoryService {
         if(categoryRepository.findByName(category.getName()).isPresent()) {
             throw new IllegalStateException("Category with name " + category.getName() + " already exists");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        entityCacheEvictor.evictAll(Category.class);
+        return saved;
     }
 
     @CacheEvict(value = "categories", allEntries = true)
@@ -42,8 +47,10 @@ public class CategoryService {
             throw new IllegalStateException("Category with id " + id + " does not exist");
         }
         categoryRepository.deleteById(id);
+        entityCacheEvictor.evict(Category.class, id);
     }
-    @Cacheable(value = "categories", key = "'id:' + #id")
+    @Cacheable(value = "categories", key = "'id:' + #id", sync = true)
+    @Transactional(readOnly = true)
     public @Nullable CategoryResponse getCategoryById(Long id) {
         if(categoryRepository.findById(id).isEmpty()) {
             throw new IllegalStateException("Category with id " + id + " does not exist");
@@ -59,6 +66,7 @@ public class CategoryService {
         category.setDescription(category.getDescription());
         category.setName(category.getName());
         categoryRepository.save(category);
+        entityCacheEvictor.evict(Category.class, id);
         return CategoryMapper.toResponse(categoryRepository.findById(id).get());
     }
 }
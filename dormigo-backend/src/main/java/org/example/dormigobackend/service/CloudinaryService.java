@@ -3,7 +3,10 @@ package org.example.dormigobackend.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.dormigobackend.exception.FileStorageException;
+import org.example.dormigobackend.jfr.ImageUploadEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,44 +23,56 @@ import java.util.UUID;
 public class CloudinaryService {
 
     private final Cloudinary cloudinary;
+    private final MeterRegistry meterRegistry;
 
     @Value("${cloudinary.folder}")
     private String folder;
 
     public Map<String, Object> uploadImage(MultipartFile file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        ImageUploadEvent uploadEvent = new ImageUploadEvent();
+        uploadEvent.begin();
+        uploadEvent.fileSize = file.getSize();
+        uploadEvent.contentType = file.getContentType();
         try{
-            log.info("Uploading image to Cloudinary : {}", file.getOriginalFilename());
-            log.info("========================================");
-            log.info("📤 CLOUDINARY UPLOAD DEBUG");
-            log.info("File name: {}", file.getOriginalFilename());
-            log.info("File size: {} bytes", file.getSize());
-            log.info("Content type: {}", file.getContentType());
-            log.info("Is empty: {}", file.isEmpty());
-            log.info("Folder: {}", folder);
-            log.info("========================================");
+            log.debug("📤 Uploading image to Cloudinary: name={}, size={} bytes, type={}, folder={}",
+                    file.getOriginalFilename(), file.getSize(), file.getContentType(), folder);
             if(file.isEmpty()){
                 throw new FileStorageException("File is empty");
             }
             String publicId = UUID.randomUUID().toString();
+            long phaseStart = System.nanoTime();
+            byte[] bytes = file.getBytes();
+            uploadEvent.readFile = System.nanoTime() - phaseStart;
+
+            phaseStart = System.nanoTime();
             Map<String, Object> result = cloudinary.uploader().upload(
-                    file.getBytes(),
+                    bytes,
                     ObjectUtils.asMap(
                             "folder", folder,
                             "public_id", publicId,
                             "resource_type", "image"
                     )
             );
+            uploadEvent.upload = System.nanoTime() - phaseStart;
+            uploadEvent.success = true;
+            outcome = "success";
             return result;
         }
 
         catch (IOException e){
-            log.error("❌ CLOUDINARY UPLOAD FAILED");
-            log.error("Error message: {}", e.getMessage());
-            log.error("Error class: {}", e.getClass().getName());
-            log.error("Stack trace:", e);
-            log.error("========================================");
+            log.error("❌ Cloudinary upload failed for {}", file.getOriginalFilename(), e);
             throw new FileStorageException("Error while uploading image to Cloudinary");
         }
+        finally {
+            uploadEvent.commit();
+            sample.stop(Timer.builder("dormigo.cloudinary.upload")
+                    .description("Image upload round trip to Cloudinary")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 
     public void deleteImage(String publicId) {
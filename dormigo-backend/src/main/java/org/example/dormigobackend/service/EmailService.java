@@ -3,7 +3,10 @@ package org.example.dormigobackend.service;
 import org.example.dormigobackend.Entity.Order;
 import org.example.dormigobackend.Entity.Product;
 import org.example.dormigobackend.Entity.User;
+import org.example.dormigobackend.jfr.EmailRenderEvent;
 import freemarker.template.Template;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +29,7 @@ import java.util.Map;
 public class EmailService {
     private final JavaMailSender mailSender;
     private final Configuration freemarkerConfiguration;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -56,7 +60,7 @@ public class EmailService {
             );
             log.info("Welcome email sent to user with user id : {} ✅", user.getId());
         } catch (Exception e) {
-            log.info("Couldn't send welcome email to the user ❌");
+            log.warn("Couldn't send welcome email to the user ❌");
             throw new RuntimeException(e);
         }
 
@@ -94,7 +98,7 @@ public class EmailService {
             );
         }
         catch (Exception e){
-            log.info("Couldn't sent the order confirmation email to the user with order id : {} ❌", order.getId());
+            log.warn("Couldn't sent the order confirmation email to the user with order id : {} ❌", order.getId());
         }
     }
 
@@ -120,7 +124,7 @@ public class EmailService {
             log.info("OTP has been sent to the user with order id : {} ✅", order.getId());
         }
         catch (Exception e){
-            log.info("Couldn't send the OTP email to the user with order id : {} ❌", order.getId());
+            log.warn("Couldn't send the OTP email to the user with order id : {} ❌", order.getId());
         }
     }
     public void sendTestEmail(String toEmail, String name) {
@@ -165,7 +169,7 @@ public class EmailService {
             log.info("Login notification sent successfully to: {} ✅", user.getEmail());
         }
         catch (Exception e){
-            log.info("Couldn't send login notification mail to the user ❌");
+            log.warn("Couldn't send login notification mail to the user ❌");
         }
     }
 
@@ -237,7 +241,7 @@ public class EmailService {
             log.info("Seller notification sent ✅");
         }
         catch (Exception e){
-            log.info("Failed to send seller notifigation ❌");
+            log.warn("Failed to send seller notifigation ❌");
         }
     }
 
@@ -264,7 +268,7 @@ public class EmailService {
             log.info("Order completed email sent successfully to: {}", order.getBuyer().getEmail());
         }
         catch (Exception e){
-            log.info("Failed to send order completed email to: {} ✅", order.getBuyer().getEmail());
+            log.warn("Failed to send order completed email to: {} ✅", order.getBuyer().getEmail());
         }
 
     }
@@ -287,7 +291,7 @@ public class EmailService {
             log.info("Order Cancelled email sent successfully to: {} ✅", order.getBuyer().getEmail());
         }
         catch (Exception e){
-            log.info("Failed to send order cancelled email to: {} ❌", order.getBuyer().getEmail());
+            log.warn("Failed to send order cancelled email to: {} ❌", order.getBuyer().getEmail());
         }
     }
 
@@ -310,7 +314,7 @@ public class EmailService {
 
         }
         catch (Exception e){
-            log.info("Failed to send product listed email ❌");
+            log.warn("Failed to send product listed email ❌");
         }
     }
 
@@ -318,9 +322,17 @@ public class EmailService {
 
     private void sendTemplatedEmail(String to, String subject, String templateName, Map<String, Object> model) {
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        EmailRenderEvent emailEvent = new EmailRenderEvent();
+        emailEvent.begin();
+        emailEvent.template = templateName;
         try{
+            long phaseStart = System.nanoTime();
             Template template = freemarkerConfiguration.getTemplate(templateName);
             String htmlContent = FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+            emailEvent.render = System.nanoTime() - phaseStart;
+            emailEvent.htmlLength = htmlContent.length();
 
             MimeMessage mimeMessage = mailSender.createMimeMessage(); // Creates an email draft
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
@@ -330,14 +342,28 @@ public class EmailService {
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(htmlContent, true);
+            phaseStart = System.nanoTime();
             mailSender.send(mimeMessage);
+            emailEvent.send = System.nanoTime() - phaseStart;
+            emailEvent.success = true;
 
             log.info("Email Successfully Sent to the user 🎉");
 
         }
         catch (Exception e){
-            log.info("Couldn't send email to the user ❌");
+            outcome = "failure";
+            meterRegistry.counter("dormigo.email.failures", "template", templateName).increment();
+            log.warn("Couldn't send email to the user ❌");
             throw new RuntimeException("Email Sending Failed",e);
         }
+        finally {
+            emailEvent.commit();
+            sample.stop(Timer.builder("dormigo.email.send")
+                    .description("Template rendering plus SMTP delivery")
+                    .tag("template", templateName)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 }
@@ -0,0 +1,52 @@
+package org.example.dormigobackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Evicts Hibernate second-level cache entries for reference entities.
+ * Hibernate already keeps READ_WRITE regions in sync for writes it performs;
+ * this covers the services' writes explicitly and runs after commit so a
+ * concurrent reader can't put the old row back before the new one is visible.
+ * */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?> entityClass, Object id) {
+        afterCommit(() -> {
+            entityManagerFactory.getCache().evict(entityClass, id);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+            log.debug("Evicted {}#{} from the second-level cache", entityClass.getSimpleName(), id);
+        });
+    }
+
+    public void evictAll(Class<?> entityClass) {
+        afterCommit(() -> {
+            entityManagerFactory.getCache().evict(entityClass);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+            log.debug("Evicted all {} from the second-level cache", entityClass.getSimpleName());
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -1,126 +1,170 @@
 package org.example.dormigobackend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.dormigobackend.Entity.MockPaymentIntent;
+import org.example.dormigobackend.Repository.MockPaymentIntentRepository;
+import org.example.dormigobackend.event.PaymentWebhookEvent;
+import org.example.dormigobackend.exception.PaymentProviderException;
+import org.example.dormigobackend.exception.ResourceNotFoundException;
 import lombok.extern.slf4j. Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org. springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Local stand-in for Stripe's PaymentIntent API, safe under load.
+ *
+ * Every state change is written to the mock_payment_intent ledger first, as a
+ * guarded UPDATE (the same compare-and-set the order transitions use), so two
+ * concurrent calls can't both move an intent and nothing is lost on restart.
+ * The writes join the caller's transaction: if the order change rolls back, so
+ * does the payment change. Open intents are also kept in a ConcurrentHashMap,
+ * updated once the ledger write commits; terminal ones are dropped from it.
+ *
+ * Like Stripe, unknown intents and invalid transitions are errors; repeating a
+ * call that already took effect (confirm twice, capture twice) is not. What
+ * rules out a double capture, across retries and nodes, is the ledger's guarded
+ * requires_capture -> succeeded transition. The idempotency-key cache is per
+ * node and in memory: it only lets this node skip the simulated round trip when
+ * a key it already completed comes back.
+ * After commit, each change is announced by MockPaymentWebhookDispatcher.
+ *
+ * Load-test knobs (all off by default):
+ * payment.mock.latency-ms, latency-jitter-ms  simulated network round trip per call (the caller's
+ *                                             transaction stays open meanwhile, as around a real Stripe call)
+ * payment.mock.failure-rate                   share of calls failing with PaymentProviderException
+ * */
 @Service
 @Slf4j
 public class MockPaymentService {
 
-    // In-memory storage for mock payment intents
-    private final Map<String, MockPaymentIntent> paymentIntents = new HashMap<>();
+    private static final Set<String> CANCELABLE = Set.of(
+            MockPaymentIntent.REQUIRES_PAYMENT_METHOD, MockPaymentIntent.REQUIRES_CAPTURE);
+
+    private final MockPaymentIntentRepository ledger;
+    private final MockPaymentWebhookDispatcher webhookDispatcher;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double failureRate;
+
+    // Open intents only: succeeded and canceled ones are read back from the ledger
+    private final Map<String, MockPaymentIntent> openIntents = new ConcurrentHashMap<>();
+    // Successful calls by idempotency key, kept for 24 hours like Stripe's; a shortcut, not the guard
+    private final Cache<String, String> idempotencyKeys = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(24))
+            .maximumSize(100_000)
+            .build();
+
+    public MockPaymentService(MockPaymentIntentRepository ledger,
+                              MockPaymentWebhookDispatcher webhookDispatcher,
+                              @Value("${payment.mock.latency-ms:0}") long latencyMillis,
+                              @Value("${payment.mock.latency-jitter-ms:0}") long jitterMillis,
+                              @Value("${payment.mock.failure-rate:0}") double failureRate) {
+        this.ledger = ledger;
+        this.webhookDispatcher = webhookDispatcher;
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.jitterNanos = TimeUnit.MILLISECONDS.toNanos(jitterMillis);
+        this.failureRate = failureRate;
+    }
 
     /**
      * Create a mock payment intent
      * Simulates Stripe's PaymentIntent creation
      */
+    @Transactional
     public String createPaymentIntent(BigDecimal amount, String orderNumber) {
         log.info("🎭 MOCK: Creating payment intent for order: {}, amount: ₹{}", orderNumber, amount);
-
-        // Generate mock payment intent ID
-        String paymentIntentId = "pi_mock_" + UUID.randomUUID().toString().substring(0, 8);
-
-        // Create mock payment intent
-        MockPaymentIntent intent = new MockPaymentIntent();
-        intent.setId(paymentIntentId);
-        intent.setAmount(amount);
-        intent.setOrderNumber(orderNumber);
-        intent.setStatus("requires_payment_method");
-        intent.setCaptured(false);
-
-        // Store it
-        paymentIntents.put(paymentIntentId, intent);
-
-        log.info("✅ MOCK: Payment intent created: {}", paymentIntentId);
+        simulateNetwork("create");
+
+        LocalDateTime now = LocalDateTime.now();
+        MockPaymentIntent intent = ledger.save(MockPaymentIntent.builder()
+                .id("pi_mock_" + UUID.randomUUID().toString().replace("-", ""))
+                .amount(amount)
+                .orderNumber(orderNumber)
+                .status(MockPaymentIntent.REQUIRES_PAYMENT_METHOD)
+                .captured(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        afterCommit(() -> openIntents.put(intent.getId(), intent));
+
+        log.info("✅ MOCK: Payment intent created: {}", intent.getId());
 
         // Return mock client secret
-        return paymentIntentId + "_secret_" + UUID.randomUUID().toString().substring(0, 8);
+        return intent.getId() + "_secret_" + UUID.randomUUID().toString().substring(0, 8);
     }
 
     /**
-     * Simulate payment confirmation
-     * In real app, this would be called by Stripe webhook
+     * Simulate payment confirmation (the buyer paying)
+     * The funds are held until capture; Stripe then sends amount_capturable_updated
      */
+    @Transactional
     public void confirmPayment(String paymentIntentId) {
         log.info("🎭 MOCK:  Confirming payment: {}", paymentIntentId);
+        simulateNetwork("confirm");
 
-        MockPaymentIntent intent = paymentIntents.get(paymentIntentId);
-
-        // ✅ If payment intent not found, create it (for testing after restart)
-        if (intent == null) {
-            log.warn("⚠️ Payment intent not found in memory (app may have restarted). Creating mock intent.");
-            intent = new MockPaymentIntent();
-            intent.setId(paymentIntentId);
-            intent.setAmount(BigDecimal.ZERO);
-            intent. setOrderNumber("UNKNOWN");
-            intent.setStatus("requires_payment_method");
-            intent. setCaptured(false);
-            paymentIntents.put(paymentIntentId, intent);
+        if (transition(paymentIntentId, Set.of(MockPaymentIntent.REQUIRES_PAYMENT_METHOD),
+                MockPaymentIntent.REQUIRES_CAPTURE, false, PaymentWebhookEvent.AMOUNT_CAPTURABLE_UPDATED)) {
+            log.info("✅ MOCK: Payment confirmed (held in escrow): {}", paymentIntentId);
         }
-
-        intent.setStatus("requires_capture");
-        log.info("✅ MOCK: Payment confirmed (held in escrow): {}", paymentIntentId);
     }
 
     /**
      * Capture payment (release from escrow)
+     * A repeated idempotency key replays the first result without calling the provider again
      */
-    public void capturePayment(String paymentIntentId) {
-        log.info("🎭 MOCK:  Capturing payment: {}", paymentIntentId);
-
-        MockPaymentIntent intent = paymentIntents.get(paymentIntentId);
-
-        // ✅ If payment intent not found, create it (for testing after restart)
-        if (intent == null) {
-            log.warn("⚠️ Payment intent not found in memory (app may have restarted). Creating mock intent.");
-            intent = new MockPaymentIntent();
-            intent.setId(paymentIntentId);
-            intent.setAmount(BigDecimal. ZERO);  // We don't know the amount
-            intent.setOrderNumber("UNKNOWN");
-            intent.setStatus("requires_capture");
-            intent.setCaptured(false);
-            paymentIntents.put(paymentIntentId, intent);
+    @Transactional
+    public void capturePayment(String paymentIntentId, String idempotencyKey) {
+        if (idempotencyKeys.getIfPresent(idempotencyKey) != null) {
+            log.info("MOCK: Replaying capture {} for {}", idempotencyKey, paymentIntentId);
+            return;
         }
+        log.info("🎭 MOCK:  Capturing payment: {}", paymentIntentId);
+        simulateNetwork("capture");
 
-        if (!intent.getStatus().equals("requires_capture")) {
-            log.warn("⚠️ Payment status is '{}', but proceeding with capture anyway", intent.getStatus());
+        if (transition(paymentIntentId, Set.of(MockPaymentIntent.REQUIRES_CAPTURE),
+                MockPaymentIntent.SUCCEEDED, true, PaymentWebhookEvent.SUCCEEDED)) {
+            log.info("✅ MOCK: Payment captured: {}", paymentIntentId);
         }
-
-        intent.setStatus("succeeded");
-        intent.setCaptured(true);
-
-        log.info("✅ MOCK: Payment captured (₹{}): {}", intent.getAmount(), paymentIntentId);
-        log.info("💰 MOCK: Seller would receive: ₹{}", intent.getAmount());
+        afterCommit(() -> idempotencyKeys.put(idempotencyKey, paymentIntentId));
     }
 
     /**
-     * Cancel/Refund payment
+     * Cancel/Refund payment (before capture)
      */
+    @Transactional
     public void cancelPayment(String paymentIntentId) {
         log.info("🎭 MOCK:  Cancelling payment: {}", paymentIntentId);
+        simulateNetwork("cancel");
 
-        MockPaymentIntent intent = paymentIntents.get(paymentIntentId);
-
-        // ✅ If payment intent not found, just log warning
-        if (intent == null) {
-            log.warn("⚠️ Payment intent not found: {}.  Assuming already cancelled or never created.", paymentIntentId);
-            return;
+        if (transition(paymentIntentId, CANCELABLE, MockPaymentIntent.CANCELED, false, PaymentWebhookEvent.CANCELED)) {
+            log.info("✅ MOCK: Payment cancelled (refunded): {}", paymentIntentId);
         }
-
-        intent. setStatus("canceled");
-        log.info("✅ MOCK: Payment cancelled (refunded): {}", paymentIntentId);
     }
 
     /**
      * Get payment status
      */
+    @Transactional(readOnly = true)
     public String getPaymentStatus(String paymentIntentId) {
-        MockPaymentIntent intent = paymentIntents.get(paymentIntentId);
+        MockPaymentIntent intent = openIntents.get(paymentIntentId);
+        if (intent == null) {
+            intent = ledger.findById(paymentIntentId).orElse(null);
+        }
         if (intent == null) {
             log.warn("⚠️ Payment intent not found: {}", paymentIntentId);
             return "unknown";
@@ -128,15 +172,73 @@ public class MockPaymentService {
         return intent.getStatus();
     }
 
-    /**
-     * Mock PaymentIntent class
-     */
-    @lombok.Data
-    private static class MockPaymentIntent {
-        private String id;
-        private BigDecimal amount;
-        private String orderNumber;
-        private String status;
-        private Boolean captured;
+    /*
+     * true if this call moved the intent; false if it was already in the target
+     * state (a retried call). Anything else is the caller's error, as with Stripe.
+     * */
+    private boolean transition(String paymentIntentId, Set<String> from, String to,
+                               boolean captured, String webhookType) {
+        int updated = ledger.transition(paymentIntentId, from, to, captured, LocalDateTime.now());
+        MockPaymentIntent intent = ledger.findById(paymentIntentId).orElseThrow(
+                () -> new ResourceNotFoundException("PaymentIntent", "id", paymentIntentId));
+
+        if (updated == 0) {
+            if (to.equals(intent.getStatus())) {
+                log.info("MOCK: Payment intent {} is already {}", paymentIntentId, to);
+                return false;
+            }
+            throw new IllegalStateException(
+                    "Payment intent " + paymentIntentId + " is " + intent.getStatus() + ", cannot move it to " + to);
+        }
+
+        PaymentWebhookEvent event = new PaymentWebhookEvent(
+                "evt_mock_" + UUID.randomUUID().toString().replace("-", ""),
+                webhookType,
+                paymentIntentId,
+                intent.getOrderNumber(),
+                intent.getAmount(),
+                1,
+                LocalDateTime.now());
+        // A copy: the managed entity predates the UPDATE above
+        MockPaymentIntent snapshot = MockPaymentIntent.builder()
+                .id(paymentIntentId)
+                .orderNumber(intent.getOrderNumber())
+                .amount(intent.getAmount())
+                .status(to)
+                .captured(captured)
+                .createdAt(intent.getCreatedAt())
+                .build();
+        afterCommit(() -> {
+            if (CANCELABLE.contains(to)) {
+                openIntents.put(paymentIntentId, snapshot);
+            } else {
+                openIntents.remove(paymentIntentId);
+            }
+            webhookDispatcher.dispatch(event);
+        });
+        return true;
+    }
+
+    private void simulateNetwork(String call) {
+        if (latencyNanos > 0 || jitterNanos > 0) {
+            LockSupport.parkNanos(latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0));
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            log.warn("⚠️ MOCK: Injected payment provider failure on {}", call);
+            throw new PaymentProviderException("Payment provider error on " + call + ", please retry");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package org.example.dormigobackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.event.PaymentWebhookEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Delivers MockPaymentService's webhooks the way Stripe does: on a thread of
+ * its own, payment.mock.webhook-delay-ms after the change, and again with
+ * exponential backoff (up to payment.mock.webhook-max-attempts) whenever the
+ * handler throws. Delivery is an application event, so the handler
+ * (OrderService.onPaymentWebhook) runs in its own transaction like a real
+ * webhook request would.
+ *
+ * payment.mock.webhook-failure-rate drops that share of deliveries on purpose,
+ * so load tests exercise the retries and the handler's idempotency.
+ *
+ * dormigo.payment.webhook{type, outcome}  delivered | retried | dropped | abandoned
+ * */
+@Component
+@Slf4j
+public class MockPaymentWebhookDispatcher implements DisposableBean {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final long delayMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+    private final double failureRate;
+    private final ScheduledExecutorService scheduler;
+
+    public MockPaymentWebhookDispatcher(ApplicationEventPublisher eventPublisher,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${payment.mock.webhook-delay-ms:200}") long delayMillis,
+                                        @Value("${payment.mock.webhook-max-backoff-ms:30000}") long maxBackoffMillis,
+                                        @Value("${payment.mock.webhook-max-attempts:5}") int maxAttempts,
+                                        @Value("${payment.mock.webhook-failure-rate:0}") double failureRate,
+                                        @Value("${payment.mock.webhook-threads:2}") int threads) {
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.delayMillis = delayMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.failureRate = failureRate;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("payment-webhook-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newScheduledThreadPool(threads, threadFactory);
+    }
+
+    public void dispatch(PaymentWebhookEvent event) {
+        scheduler.schedule(() -> deliver(event), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void deliver(PaymentWebhookEvent event) {
+        try {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                count(event, "dropped");
+                throw new IllegalStateException("Injected webhook failure");
+            }
+            eventPublisher.publishEvent(event);
+            count(event, "delivered");
+            log.debug("🎭 MOCK: Webhook {} delivered for {} (attempt {})",
+                    event.type(), event.paymentIntentId(), event.attempt());
+        } catch (Exception e) {
+            retry(event, e);
+        }
+    }
+
+    private void retry(PaymentWebhookEvent event, Exception cause) {
+        if (event.attempt() >= maxAttempts) {
+            count(event, "abandoned");
+            log.warn("⚠️ MOCK: Webhook {} for {} abandoned after {} attempts",
+                    event.type(), event.paymentIntentId(), event.attempt(), cause);
+            return;
+        }
+        // 1x, 2x, 4x ... the base delay, with jitter so retries of a burst spread out
+        long backoff = Math.min(maxBackoffMillis, Math.max(1, delayMillis) << Math.min(event.attempt(), 20));
+        long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        count(event, "retried");
+        log.debug("MOCK: Webhook {} for {} failed (attempt {}), retrying in {} ms: {}",
+                event.type(), event.paymentIntentId(), event.attempt(), jittered, cause.getMessage());
+        scheduler.schedule(() -> deliver(event.nextAttempt()), jittered, TimeUnit.MILLISECONDS);
+    }
+
+    private void count(PaymentWebhookEvent event, String outcome) {
+        meterRegistry.counter("dormigo.payment.webhook", "type", event.type(), "outcome", outcome).increment();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
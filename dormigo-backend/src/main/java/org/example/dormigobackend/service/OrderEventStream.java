@@ -0,0 +1,371 @@
+package org.example.dormigobackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.dto.response.OrderStatusUpdateResponse;
+import org.example.dormigobackend.event.OrderStatusChangedEvent;
+import org.example.dormigobackend.exception.TooManyRequestsException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/*
+ * Pushes order status changes to the buyer and the sellers of the order over
+ * SSE (GET /api/orders/stream), so the order pages don't have to poll.
+ *
+ * dormigo::order-events:{userId}   stream   the user's recent events (field "data" = the JSON sent),
+ *                                           about orders.stream.max-length of them, gone
+ *                                           orders.stream.retention-minutes after the last one
+ * dormigo::order-events            channel  "userId:entryId,userId:entryId\n{json}", one per change
+ *
+ * Once a transition commits, the event is appended to each recipient's stream
+ * and announced once on the channel; every node, this one included, forwards
+ * it to the connections it holds for those users. The stream entry id is the
+ * SSE id, so a client reconnecting with Last-Event-ID is first replayed what it
+ * missed from its stream, then continues live. Live events arriving during the
+ * replay wait for it, and nothing at or before the last id sent goes out twice.
+ * A Last-Event-ID older than the retention gets a "resync" event: reload the lists.
+ *
+ * A connection is an async-servlet SseEmitter: no thread is held while it is
+ * idle, only the emitter and the last id sent. Heartbeat comments every
+ * orders.stream.heartbeat-ms keep proxies from closing it and find dead ones.
+ *
+ * emitter.send() blocks on a slow client, so neither the Redis listener thread
+ * nor the scheduler ever calls it: each connection has an outbox, drained in
+ * order by one task at a time on a virtual-thread executor. A client whose
+ * outbox passes MAX_QUEUED events is dropped; it resumes with Last-Event-ID.
+ *
+ * dormigo.orders.stream.connections  open connections on this node
+ * */
+@Service
+@Slf4j
+public class OrderEventStream implements MessageListener, DisposableBean {
+
+    private static final String STREAM_KEY_PREFIX = "dormigo::order-events:";
+    private static final String CHANNEL = "dormigo::order-events";
+    private static final String DATA_FIELD = "data";
+    private static final String STATUS_EVENT = "order-status";
+    private static final String RESYNC_EVENT = "resync";
+    private static final Pattern ENTRY_ID = Pattern.compile("\\d{1,18}-\\d{1,18}");
+    private static final int MAX_QUEUED = 256;
+
+    private static final RedisScript<String> APPEND = new DefaultRedisScript<>("""
+            local id = redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], '*', 'data', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return id
+            """, String.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final Duration retention;
+    private final int maxLength;
+    private final int maxConnectionsPerUser;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("order-stream-", 0).factory());
+
+    public OrderEventStream(StringRedisTemplate stringRedisTemplate,
+                            RedisMessageListenerContainer redisMessageListenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${orders.stream.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${orders.stream.reconnect-ms:3000}") long reconnectMillis,
+                            @Value("${orders.stream.retention-minutes:60}") long retentionMinutes,
+                            @Value("${orders.stream.max-length:100}") int maxLength,
+                            @Value("${orders.stream.max-connections-per-user:5}") int maxConnectionsPerUser) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.timeoutMillis = timeoutMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.maxLength = maxLength;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        this.openConnections = meterRegistry.gauge("dormigo.orders.stream.connections", new AtomicInteger());
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /*A new stream for the user; lastEventId (the Last-Event-ID header) resumes after that event*/
+    public SseEmitter subscribe(Long userId, @Nullable String lastEventId) {
+        boolean resume = lastEventId != null && ENTRY_ID.matcher(lastEventId).matches();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter, resume ? lastEventId : null);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // Checked and added under the map's lock for this user, so concurrent opens can't overshoot the cap
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> set = userConnections != null ? userConnections : ConcurrentHashMap.newKeySet();
+            if (set.size() >= maxConnectionsPerUser) {
+                throw new TooManyRequestsException("Too many open order streams, close one first", reconnectMillis / 1000 + 1);
+            }
+            set.add(connection);
+            return set;
+        });
+        openConnections.incrementAndGet();
+
+        List<MapRecord<String, Object, Object>> missed = resume ? missedSince(userId, lastEventId) : List.of();
+        boolean resync = resume && expired(lastEventId);
+        connection.enqueue(() -> connection.open(missed, resync));
+        log.debug("Order stream opened for user {} (resuming after {})", userId, resume ? lastEventId : "-");
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        try {
+            String data = objectMapper.writeValueAsString(OrderStatusUpdateResponse.builder()
+                    .orderId(event.orderId())
+                    .orderNumber(event.orderNumber())
+                    .previousStatus(event.previousStatus())
+                    .newStatus(event.newStatus())
+                    .occurredAt(event.occurredAt())
+                    .build());
+
+            Set<Long> recipients = new LinkedHashSet<>();
+            recipients.add(event.buyerId());
+            recipients.addAll(event.sellerIds());
+
+            StringJoiner routes = new StringJoiner(",");
+            for (Long userId : recipients) {
+                String entryId = stringRedisTemplate.execute(APPEND, List.of(streamKey(userId)),
+                        String.valueOf(maxLength), String.valueOf(retention.toMillis()), data);
+                routes.add(userId + ":" + entryId);
+            }
+            stringRedisTemplate.convertAndSend(CHANNEL, routes + "\n" + data);
+        } catch (Exception e) {
+            // The change itself is committed; open pages see it on their next load
+            log.warn("Couldn't publish the status change of order {} ❌", event.orderId(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte @Nullable [] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int newline = body.indexOf('\n');
+        if (newline < 0) {
+            return;
+        }
+        String data = body.substring(newline + 1);
+        for (String route : body.substring(0, newline).split(",")) {
+            int colon = route.indexOf(':');
+            Set<Connection> userConnections = connections.get(Long.valueOf(route.substring(0, colon)));
+            if (userConnections != null) {
+                String entryId = route.substring(colon + 1);
+                userConnections.forEach(connection -> connection.enqueue(() -> connection.deliver(entryId, data)));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections -> userConnections.forEach(
+                connection -> connection.enqueue(connection::heartbeat)));
+    }
+
+    @Override
+    public void destroy() {
+        // Clients reconnect to another node with their Last-Event-ID
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private List<MapRecord<String, Object, Object>> missedSince(Long userId, String lastEventId) {
+        try {
+            List<MapRecord<String, Object, Object>> missed = stringRedisTemplate.opsForStream().range(streamKey(userId),
+                    Range.of(Range.Bound.exclusive(lastEventId), Range.Bound.unbounded()),
+                    Limit.limit().count(maxLength));
+            return missed != null ? missed : List.of();
+        } catch (Exception e) {
+            log.warn("Couldn't replay the order stream of user {} ❌", userId, e);
+            return List.of();
+        }
+    }
+
+    /*The entries after lastEventId may already have been trimmed or expired*/
+    private boolean expired(String lastEventId) {
+        long sentAt = Long.parseLong(lastEventId.substring(0, lastEventId.indexOf('-')));
+        return sentAt < System.currentTimeMillis() - retention.toMillis();
+    }
+
+    private void remove(Connection connection) {
+        boolean[] removed = new boolean[1];
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            removed[0] = userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        if (removed[0]) {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private static String streamKey(Long userId) {
+        return STREAM_KEY_PREFIX + userId;
+    }
+
+    /*Stream entry ids are "ms-sequence"; true if a comes after b*/
+    private static boolean isAfter(String a, String b) {
+        int dashA = a.indexOf('-');
+        int dashB = b.indexOf('-');
+        int byTime = Long.compare(Long.parseLong(a.substring(0, dashA)), Long.parseLong(b.substring(0, dashB)));
+        return byTime != 0
+                ? byTime > 0
+                : Long.parseLong(a.substring(dashA + 1)) > Long.parseLong(b.substring(dashB + 1));
+    }
+
+    /*Everything but enqueue() runs inside drain(), one task at a time, so the fields need no locking*/
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Runnable> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private @Nullable String lastSentId;
+        // Live events held back until the replay is out; null once the connection is open
+        private @Nullable List<String[]> pending = new ArrayList<>();
+
+        private Connection(Long userId, SseEmitter emitter, @Nullable String lastSentId) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+        }
+
+        void enqueue(Runnable task) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > MAX_QUEUED) {
+                log.debug("Order stream of user {} fell {} events behind, dropping it", userId, MAX_QUEUED);
+                close(new IOException("Client too slow"));
+                return;
+            }
+            outbox.add(task);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: destroy() completes the emitter
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Runnable task;
+                while ((task = outbox.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (closed.get()) {
+                        continue;
+                    }
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        log.warn("Order stream of user {} failed ❌", userId, e);
+                        close(e);
+                    }
+                }
+                draining.set(false);
+                // A task added after the last poll but before the flag was cleared is picked up here
+            } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void open(List<MapRecord<String, Object, Object>> missed, boolean resync) {
+            List<String[]> live = pending;
+            pending = null;
+            send(SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"));
+            if (resync) {
+                send(SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+            }
+            for (MapRecord<String, Object, Object> entry : missed) {
+                deliver(entry.getId().getValue(), String.valueOf(entry.getValue().get(DATA_FIELD)));
+            }
+            live.forEach(event -> deliver(event[0], event[1]));
+        }
+
+        void deliver(String entryId, String data) {
+            if (pending != null) {
+                pending.add(new String[]{entryId, data});
+                return;
+            }
+            if (lastSentId != null && !isAfter(entryId, lastSentId)) {
+                return;
+            }
+            if (send(SseEmitter.event().id(entryId).name(STATUS_EVENT).data(data))) {
+                lastSentId = entryId;
+            }
+        }
+
+        void heartbeat() {
+            if (pending == null) {
+                send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client gone (or the emitter already completed): drop the connection
+                log.debug("Order stream of user {} closed: {}", userId, e.getMessage());
+                close(e);
+                return false;
+            }
+        }
+
+        private void close(Exception cause) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            outbox.clear();
+            remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
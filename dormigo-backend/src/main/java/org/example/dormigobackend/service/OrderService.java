@@ -8,27 +8,45 @@ import org.example.dormigobackend.Repository.*;
 import org.example.dormigobackend.dto.request.CreateOrderRequest;
 import org.example.dormigobackend.dto.request.OTPRequest;
 import org.example.dormigobackend.dto.request.SetMeetingRequest;
+import org.example.dormigobackend.dto.response.OrderItemResponse;
 import org.example.dormigobackend.dto.response.OrderResponse;
+import org.example.dormigobackend.dto.response.OrderSummaryResponse;
+import org.example.dormigobackend.event.OrderStatusChangedEvent;
+import org.example.dormigobackend.event.PaymentWebhookEvent;
 import org.example.dormigobackend.exception.ResourceNotFoundException;
+import org.example.dormigobackend.exception.TooManyRequestsException;
+import org.example.dormigobackend.jfr.CheckoutEvent;
+import org.example.dormigobackend.mapper.OrderItemMapper;
 import org.example.dormigobackend.mapper.OrderMapper;
 import org.example.dormigobackend.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "dormigo.service", histogram = true)
 public class OrderService {
 
     private final OrderRepository orderRepository;
@@ -36,84 +54,113 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final MockPaymentService mockPaymentService;
+    private final PaymentCaptureQueue paymentCaptureQueue;
     private final OtpService otpService;
     private final CartRepository cartRepository;
     private final EmailService emailService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Map<String, Object> createOrder(CreateOrderRequest createOrderRequest, UserPrincipal userPrincipal) {
 
         log.info("Creating Order Request for the User Id : {}", userPrincipal.getId());
 
-        Cart cart = cartRepository.findByUserIdWithItems(userPrincipal.getId()).orElseThrow(
-                () -> new ResourceNotFoundException("Cart not found for the user with id : " + userPrincipal.getId())
+        CheckoutEvent checkout = new CheckoutEvent();
+        checkout.begin();
+        checkout.userId = userPrincipal.getId();
+        try {
+            long phaseStart = System.nanoTime();
+            Cart cart = cartRepository.findByUserIdWithItems(userPrincipal.getId()).orElseThrow(
+                    () -> new ResourceNotFoundException("Cart not found for the user with id : " + userPrincipal.getId())
 
-        );
-
-        if (cart.getItems().isEmpty()) {
-            throw new ResourceNotFoundException("Cart is empty");
-        }
+            );
 
-        User buyer = userRepository.findById(userPrincipal.getId()).orElseThrow(
-                () -> new ResourceNotFoundException("User not found for the user with id : " + userPrincipal.getId())
-        );
-
-        String orderNumber = generateOrderNumber();
-        BigDecimal totalPrice = cart.getItems().stream()
-                .map(CartItems::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        String clientSecret = mockPaymentService.createPaymentIntent(totalPrice, orderNumber);
-        String paymentIntendId = clientSecret.split("_secret_")[0];
-        Order createOrder = Order.builder()
-                .orderNumber(orderNumber)
-                .buyer(buyer)
-                .stripePaymentIntendId(paymentIntendId)
-                .stripePaymentStatus("requires_payment_method")
-                .totalAmount(totalPrice)
-                .orderStatus(OrderStatus.PENDING_PAYMENT)
-                .build();
-
-        for (CartItems item : cart.getItems()) {
-            Product product = item.getProduct();
-
-            if (product.getQuantity() < item.getQuantity()) {
-                throw new IllegalArgumentException("Product quantity must be greater than or equal to quantity");
+            if (cart.getItems().isEmpty()) {
+                throw new ResourceNotFoundException("Cart is empty");
             }
 
-            OrderItem orderItem = OrderItem.builder()
-                    .product(product)
-                    .quantity(item.getQuantity())
-                    .seller(product.getSeller())
-                    .priceAtPurchase(product.getPrice())
-                    .order(createOrder)
+            User buyer = userRepository.findById(userPrincipal.getId()).orElseThrow(
+                    () -> new ResourceNotFoundException("User not found for the user with id : " + userPrincipal.getId())
+            );
+            checkout.cartFetch = System.nanoTime() - phaseStart;
+            checkout.itemCount = cart.getItems().size();
+
+            String orderNumber = generateOrderNumber();
+            BigDecimal totalPrice = cart.getItems().stream()
+                    .map(CartItems::getTotalPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            checkout.orderNumber = orderNumber;
+            checkout.totalAmount = totalPrice.toPlainString();
+
+            phaseStart = System.nanoTime();
+            String clientSecret = mockPaymentService.createPaymentIntent(totalPrice, orderNumber);
+            checkout.paymentIntent = System.nanoTime() - phaseStart;
+            String paymentIntendId = clientSecret.split("_secret_")[0];
+            Order createOrder = Order.builder()
+                    .orderNumber(orderNumber)
+                    .buyer(buyer)
+                    .stripePaymentIntendId(paymentIntendId)
+                    .stripePaymentStatus("requires_payment_method")
+                    .totalAmount(totalPrice)
+                    .orderStatus(OrderStatus.PENDING_PAYMENT)
                     .build();
 
-            createOrder.addItem(orderItem);
+            phaseStart = System.nanoTime();
+            for (CartItems item : cart.getItems()) {
+                Product product = item.getProduct();
 
-            product.setQuantity(product.getQuantity() - item.getQuantity());
-            productRepository.save(product);
-        }
-        createOrder = orderRepository.save(createOrder);
+                if (product.getQuantity() < item.getQuantity()) {
+                    throw new IllegalArgumentException("Product quantity must be greater than or equal to quantity");
+                }
+
+                OrderItem orderItem = OrderItem.builder()
+                        .product(product)
+                        .quantity(item.getQuantity())
+                        .seller(product.getSeller())
+                        .priceAtPurchase(product.getPrice())
+                        .order(createOrder)
+                        .build();
+
+                createOrder.addItem(orderItem);
+
+                // Managed entity: the stock change is flushed with the other updates in one batch
+                product.setQuantity(product.getQuantity() - item.getQuantity());
+            }
+            checkout.stockUpdate = System.nanoTime() - phaseStart;
 
+            phaseStart = System.nanoTime();
+            createOrder = orderRepository.save(createOrder);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(createOrder, null, OrderStatus.PENDING_PAYMENT));
 
-        cart.clearItems();
-        cartRepository.save(cart);
-        emailService.sendOrderConfirmationEmail(createOrder);
 
-        log.info("Order Created Successfully for the User Id : {}", userPrincipal.getId());
+            cart.clearItems();
+            cartRepository.save(cart);
+            // Pooled ids and managed entities defer every write to the flush: run it here, so this
+            // phase times the batched inserts, stock updates and cart deletes instead of the commit
+            entityManager.flush();
+            checkout.persistOrder = System.nanoTime() - phaseStart;
 
+            phaseStart = System.nanoTime();
+            emailService.sendOrderConfirmationEmail(createOrder);
+            checkout.emailHandoff = System.nanoTime() - phaseStart;
 
+            log.info("Order Created Successfully for the User Id : {}", userPrincipal.getId());
 
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("clientSecret", clientSecret);
-        response.put("orderId", createOrder.getId());
-        response.put("orderNumber", orderNumber);
-        response.put("totalAmount", totalPrice);
 
 
-        return response;
+            Map<String, Object> response = new HashMap<>();
+            response.put("clientSecret", clientSecret);
+            response.put("orderId", createOrder.getId());
+            response.put("orderNumber", orderNumber);
+            response.put("totalAmount", totalPrice);
+
+            checkout.success = true;
+            return response;
+        } finally {
+            checkout.commit();
+        }
     }
 
         @Transactional
@@ -125,22 +172,74 @@ public class OrderService {
                 throw new IllegalStateException("Order Status is not PENDING_PAYMENT");
             }
 
-            String paymentIntendId = order.getStripePaymentIntendId();
+            transitionToPaid(order);
 
-            mockPaymentService.confirmPayment(paymentIntendId);
+            // Runs after the guarded update so a concurrent retry can't confirm twice
+            mockPaymentService.confirmPayment(order.getStripePaymentIntendId());
+            notifyPaid(order);
 
-            order.setStripePaymentIntendId(paymentIntendId);
-            order.setStripePaymentStatus("requires_capture");
-            order.setOrderStatus(OrderStatus.PAYMENT_COMPLETED);
-            emailService.sendPaymentConfirmation(order);
+            log.info("'Payment success simulation is done✅");
 
-            order = orderRepository.save(order);
+            return OrderMapper.toResponse(order);
+        }
 
-            log.info("'Payment success simulation is done✅");
+        /*
+         * Payment provider webhooks (MockPaymentWebhookDispatcher). Delivered at least once
+         * and possibly after the synchronous path already did the work, so every branch is a
+         * no-op when the order has moved on. Throwing makes the provider retry later.
+         * */
+        @EventListener
+        @Transactional
+        public void onPaymentWebhook(PaymentWebhookEvent event){
+            Order order = orderRepository.findByStripePaymentIntendId(event.paymentIntentId()).orElse(null);
+            if (order == null) {
+                // The checkout that created the intent rolled back: nothing to reconcile
+                log.info("Webhook {} for unknown payment intent {}, ignored", event.type(), event.paymentIntentId());
+                return;
+            }
 
-            notifySeller(order);
+            if (PaymentWebhookEvent.AMOUNT_CAPTURABLE_UPDATED.equals(event.type())
+                    && order.getOrderStatus() == OrderStatus.PENDING_PAYMENT) {
+                transitionToPaid(order);
+                notifyPaid(order);
+                log.info("Order {} marked paid from webhook {} ✅", order.getId(), event.eventId());
+            } else if (PaymentWebhookEvent.SUCCEEDED.equals(event.type())
+                    && PaymentCaptureQueue.CAPTURE_PENDING.equals(order.getStripePaymentStatus())) {
+                // Captured, but the queue hadn't written it back yet (or its node went away)
+                orderRepository.updatePaymentStatus(List.of(event.paymentIntentId()),
+                        PaymentCaptureQueue.CAPTURE_PENDING, PaymentCaptureQueue.CAPTURED, LocalDateTime.now());
+            } else {
+                log.debug("Webhook {} for order {} ({}): nothing to do", event.type(), order.getId(), order.getOrderStatus());
+            }
+        }
 
-            return OrderMapper.toResponse(order);
+        private void transitionToPaid(Order order){
+            int updated = orderRepository.transitionStatusWithPayment(
+                    order.getId(),
+                    expectedFrom(order, OrderStatus.PAYMENT_COMPLETED),
+                    OrderStatus.PAYMENT_COMPLETED,
+                    "requires_capture",
+                    LocalDateTime.now()
+            );
+            applyTransition(order, OrderStatus.PAYMENT_COMPLETED, updated);
+        }
+
+        private void afterCommit(Runnable action) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+            } else {
+                action.run();
+            }
+        }
+
+        private void notifyPaid(Order order){
+            emailService.sendPaymentConfirmation(order);
+            notifySeller(order);
         }
 
         @Transactional
@@ -165,64 +264,92 @@ public class OrderService {
 
             if(order.getOrderStatus() != OrderStatus.PAYMENT_COMPLETED
                && order.getOrderStatus() != OrderStatus.SELLER_NOTIFIED
+               && order.getOrderStatus() != OrderStatus.OTP_GENERATED
             ){
                 throw new IllegalStateException("The order is not ready sharing meeting details");
             }
-            order.setMeetingLocation(meetingRequest.getMeetingLocation());
-            order.setMeetingTime(meetingRequest.getMeetingTime());
-            order.setMeetingNotes(meetingRequest.getMeetingNotes());
-            order.setOrderStatus(OrderStatus.MEETING_ARRANGED);
 
-            order = orderRepository.save(order);
+            // Arranging again (new time, or the last code was burned by wrong guesses) issues a new OTP
+            int updated = orderRepository.arrangeMeeting(
+                    orderId,
+                    expectedFrom(order, OrderStatus.OTP_GENERATED),
+                    OrderStatus.OTP_GENERATED,
+                    meetingRequest.getMeetingLocation(),
+                    meetingRequest.getMeetingTime(),
+                    meetingRequest.getMeetingNotes(),
+                    otpService.getExpiryDate(),
+                    LocalDateTime.now()
+            );
+            applyTransition(order, OrderStatus.OTP_GENERATED, updated);
+
+            Set<Long> sellerIds = order.getItems().stream()
+                    .map(item -> item.getSeller().getId())
+                    .collect(Collectors.toSet());
+            String buyerEmail = order.getBuyer().getEmail();
 
             log.info("Meeting requirements for the order has been successfully set ✅");
-            generateAndSendOTP(order);
-
-            String otpCode = order.getOtpCode();
 
-            emailService.sendMeetingDetails(order, otpCode);
+            // The code goes live (and out to the buyer) only with the meeting it belongs to
+            afterCommit(() -> {
+                String otpCode = otpService.issue(orderId, sellerIds);
+                log.info("📧 Sending OTP to buyer:  {}", buyerEmail);
+                otpService.sendOTPToBuyer(buyerEmail, otpCode);
+                emailService.sendMeetingDetails(order, otpCode);
+            });
 
             return OrderMapper.toResponse(order);
 
         }
 
+        /*
+         * Wrong guesses never reach the database: OtpService checks seller, attempts and
+         * code in one Redis call, and only a verified code loads and completes the order.
+         * The verified code stays claimed until the completion commits (then it's spent)
+         * or rolls back (then it can be entered again).
+         * */
         @Transactional
         public OrderResponse verifyOTPAndComplete(Long orderId, OTPRequest otpRequest, UserPrincipal userPrincipal){
+            OtpService.Verification verification =
+                    otpService.verify(orderId, userPrincipal.getId(), otpRequest.getOtpCode());
+
+            switch (verification.outcome()) {
+                case NOT_SELLER -> throw new IllegalStateException(
+                        "This order does not belong to the user with id : " + userPrincipal.getId());
+                case NO_CODE -> throw new ResourceNotFoundException("No valid OTP for this order, it may have expired");
+                case LOCKED -> throw new TooManyRequestsException(
+                        "Too many wrong OTP attempts for this order", verification.detail());
+                case WRONG_CODE -> throw new IllegalArgumentException(
+                        "OTP is not valid, " + verification.detail() + " attempts left");
+                case VERIFIED -> log.debug("OTP verified for order {}", orderId);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        otpService.consume(orderId);
+                    } else {
+                        otpService.release(orderId);
+                    }
+                }
+            });
+
             Order order = orderRepository.findById(orderId).orElseThrow(
                     () -> new ResourceNotFoundException("Order", "id", orderId)
             );
 
-            boolean seller = order.getItems().stream().anyMatch(
-                    item -> item.getSeller().getId().equals(userPrincipal.getId()));
-            if(!seller){
-                throw new IllegalStateException("This order does not belong to the user with id : " + userPrincipal.getId());
-            }
-
-            if(!order.getOrderStatus().equals(OrderStatus.OTP_GENERATED)){
-
-                throw new ResourceNotFoundException("OTP is not even generated yet");
-            }
-
-            boolean isValid = otpService.verifyOTP(
-                    otpRequest.getOtpCode(),
-                    order.getOtpCode(),
-                    order.getOtpExpiresAt()
+            int updated = orderRepository.completeOrder(
+                    orderId,
+                    expectedFrom(order, OrderStatus.COMPLETED),
+                    OrderStatus.COMPLETED,
+                    PaymentCaptureQueue.CAPTURE_PENDING,
+                    LocalDateTime.now()
             );
-
-            if(!isValid){
-                throw new IllegalArgumentException("OTP is not valid");
-            }
-            order.setOtpVerifiedAt(LocalDateTime.now());
-            order.setOrderStatus(OrderStatus.COMPLETED);
-
-            order = orderRepository.save(order);
+            applyTransition(order, OrderStatus.COMPLETED, updated);
             log.info("OTP has been successfully verified ✅");
 
-            mockPaymentService.capturePayment(order.getStripePaymentIntendId());
-            order.setStripePaymentStatus("Succeeded");
-
-            order = orderRepository.save(order);
-            log.info("✅ Payment captured for order: {}", order. getOrderNumber());
+            // Captured off the request thread, batched with the other handoffs of the moment
+            paymentCaptureQueue.enqueue(order.getStripePaymentIntendId());
+            log.info("Payment capture queued for order: {}", order.getOrderNumber());
             return  OrderMapper.toResponse(order);
 
 
@@ -241,10 +368,24 @@ public class OrderService {
             if(!buyer){
                 throw new IllegalStateException("This order does not belong to the user with id : " + userPrincipal.getId());
             }
-            if(order.getOrderStatus() == OrderStatus.COMPLETED){
-                throw new IllegalStateException("Cannot cancel an order that has been completed");
+            if(!order.getOrderStatus().canTransitionTo(OrderStatus.CANCELLED)){
+                throw new IllegalStateException("Cannot cancel an order that is " + order.getOrderStatus());
             }
 
+            String paymentStatus = order.getStripePaymentIntendId() != null
+                    ? "Cancelled"
+                    : order.getStripePaymentStatus();
+
+            int updated = orderRepository.transitionStatusWithPayment(
+                    orderId,
+                    expectedFrom(order, OrderStatus.CANCELLED),
+                    OrderStatus.CANCELLED,
+                    paymentStatus,
+                    LocalDateTime.now()
+            );
+            applyTransition(order, OrderStatus.CANCELLED, updated);
+
+            // Only the request that won the transition restocks, so stock is returned once
             for(OrderItem item : order.getItems()){
                 Product product =  item.getProduct();
                 product.setQuantity(product.getQuantity() + item.getQuantity());
@@ -253,36 +394,47 @@ public class OrderService {
 
             if(order.getStripePaymentIntendId() != null){
                 mockPaymentService.cancelPayment(order.getStripePaymentIntendId());
-                order.setStripePaymentStatus("Cancelled");
             }
 
-
-
-            order.setOrderStatus(OrderStatus.CANCELLED);
-            order = orderRepository.save(order);
-
             log.info("Successfully Cancelled the order with id : {} ",orderId);
 
             return OrderMapper.toResponse(order);
         }
 
-        public Page<OrderResponse> getMyOrders(UserPrincipal userPrincipal, int page, int size){
+        /*
+         * The order lists are projections, not entities: one query for the page of
+         * orders (plus its count), one for all of their items, whatever the page size.
+         * */
+        @Transactional(readOnly = true)
+        public Page<OrderSummaryResponse> getMyOrders(UserPrincipal userPrincipal, int page, int size){
             Pageable pageable = PageRequest.of(page, size);
-            return orderRepository.findByBuyerId(userPrincipal.getId(), pageable).map(OrderMapper::toResponse);
+            return withItems(orderRepository.findSummariesByBuyerId(userPrincipal.getId(), pageable));
         }
 
-        public Page<OrderResponse> getMySales(UserPrincipal userPrincipal, int page, int size){
+        @Transactional(readOnly = true)
+        public Page<OrderSummaryResponse> getMySales(UserPrincipal userPrincipal, int page, int size){
             Pageable pageable = PageRequest.of(page, size);
-            return orderRepository.findBySellerId(userPrincipal.getId(), pageable).map(OrderMapper::toResponse);
+            return withItems(orderRepository.findSummariesBySellerId(userPrincipal.getId(), pageable));
+        }
+
+        private Page<OrderSummaryResponse> withItems(Page<OrderRepository.OrderSummary> orders){
+            Map<Long, List<OrderItemResponse>> itemsByOrder = orders.isEmpty()
+                    ? Map.of()
+                    : orderItemRepository.findLinesByOrderIds(orders.map(OrderRepository.OrderSummary::getId).toList())
+                            .stream()
+                            .collect(Collectors.groupingBy(OrderItemRepository.OrderLine::getOrderId,
+                                    Collectors.mapping(OrderItemMapper::toResponse, Collectors.toList())));
+            return orders.map(order -> OrderMapper.toSummary(order, itemsByOrder.getOrDefault(order.getId(), List.of())));
         }
 
+        /*Stays on the primary: it is read straight after checkout and status changes*/
         public OrderResponse getOrderById(Long orderId, UserPrincipal userPrincipal){
-            Order order = orderRepository.findById(orderId).orElseThrow(
+            Order order = orderRepository.findDetailById(orderId).orElseThrow(
                     () -> new ResourceNotFoundException("Order", "id", orderId)
             );
             boolean isBuyer = order.getBuyer().getId().equals(userPrincipal.getId());
             boolean isSeller = order.getItems().stream().anyMatch(
-                    item -> item.getProduct().getId().equals(userPrincipal.getId())
+                    item -> item.getSeller().getId().equals(userPrincipal.getId())
             );
             if(!isBuyer && !isSeller){
                 throw new IllegalStateException("This order does not belong to the user with id : " + userPrincipal.getId());
@@ -292,32 +444,49 @@ public class OrderService {
 
         }
 
-        public void generateAndSendOTP(Order order){
-
-            String otpCode = otpService.generateOTPCode();
-            LocalDateTime expirationDate = otpService.getExpiryDate();
-
-            order.setOtpCode(otpCode);
-            order.setOtpGeneratedAt(LocalDateTime.now());
-            order.setOtpExpiresAt(expirationDate);
-            order.setOrderStatus(OrderStatus.OTP_GENERATED);
-            orderRepository.save(order);
-            log.info("✅ OTP generated:   {}", otpCode);
-            log.info("📧 Sending OTP to buyer:  {}", order.getBuyer().getEmail());
-
-            otpService.sendOTPToBuyer(order.getBuyer().getEmail(), otpCode);
-
-        }
-
         @Transactional
         public void notifySeller (Order order){
-            order.setOrderStatus(OrderStatus.SELLER_NOTIFIED);
-            orderRepository.save(order);
+            int updated = orderRepository.transitionStatus(
+                    order.getId(),
+                    expectedFrom(order, OrderStatus.SELLER_NOTIFIED),
+                    OrderStatus.SELLER_NOTIFIED,
+                    LocalDateTime.now()
+            );
+            applyTransition(order, OrderStatus.SELLER_NOTIFIED, updated);
             emailService.sendSellerNotification(order);
             log.info("Order Notification Successfully for the Order Id : {} ✅", order.getId());
         }
 
-        public String generateOrderNumber () {
+        /*
+         * The from-set of a guarded update: exactly the status this request read, once the
+         * move from it is known to be legal. The UPDATE then only succeeds if nobody moved
+         * the order since, so the previous status in the event is the real one.
+         * */
+        private Set<OrderStatus> expectedFrom(Order order, OrderStatus target){
+            OrderStatus current = order.getOrderStatus();
+            if(!current.canTransitionTo(target)){
+                throw new IllegalStateException("Order " + order.getId() + " is " + current + ", cannot move it to " + target);
+            }
+            return EnumSet.of(current);
+        }
+
+        /*
+         * Called after a guarded update. 0 rows means the order was moved by
+         * someone else since it was read, so the whole transaction is rolled back.
+         * On success the entity is re-read (no second write) and the event is published.
+         * */
+        private void applyTransition(Order order, OrderStatus target, int updatedRows){
+            OrderStatus previous = order.getOrderStatus();
+            if(updatedRows == 0){
+                throw new IllegalStateException(
+                        "Order " + order.getId() + " changed concurrently, cannot move from " + previous + " to " + target);
+            }
+            entityManager.refresh(order);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, previous, target));
+            log.info("Order {} moved {} -> {}", order.getId(), previous, target);
+        }
+
+        public static String generateOrderNumber () {
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
             int random = (int) (Math.random() * 1000);
             return String.format("ORD-%s-%03d", timestamp, random);
@@ -1,34 +1,189 @@
 package org.example.dormigobackend.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
 
+/*
+ * Handoff OTPs. The code itself only ever exists in the buyer's email: Redis keeps
+ * an HMAC of it, bound to the order, and the database keeps nothing.
+ *
+ * dormigo::otp:{orderId}           hash    code (HMAC-SHA256 of "orderId:code"), sellers (",id,id,"), attempts
+ * dormigo::otp-attempts:{orderId}  string  wrong guesses on this order across re-issued codes
+ * dormigo::otp-claim:{orderId}     string  set by a successful verify until its transaction ends
+ *
+ * (The braces keep the keys of an order in one cluster slot, so one script can touch them all.)
+ *
+ * A verification is one script call: it checks the caller is a seller of the order,
+ * counts the attempt and compares, without the order being loaded. Comparing
+ * HMACs rather than codes means response timing says nothing about the code.
+ * A code is burned after otp.max-attempts wrong guesses; re-arranging the meeting
+ * issues a new one, until otp.max-order-attempts guesses within otp.lockout-minutes
+ * lock the order out entirely.
+ *
+ * The right code is only claimed: the caller consume()s it once the completion has
+ * committed, or release()s it so it can be entered again. A claim left behind by a
+ * node that died mid-transaction lapses after CLAIM_TTL.
+ *
+ * otp.hmac-secret is its own key (no fallback to jwt.secret): leaking or rotating
+ * the token signing key must not touch the OTP hashes, and the other way round.
+ * */
 @Service
-@RequiredArgsConstructor
 public class OtpService {
 
-    public String generateOTPCode(){
+    private static final String KEY_PREFIX = "dormigo::otp:";
+    private static final String ATTEMPTS_KEY_PREFIX = "dormigo::otp-attempts:";
+    private static final String CLAIM_KEY_PREFIX = "dormigo::otp-claim:";
+    private static final Duration CLAIM_TTL = Duration.ofSeconds(30);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
 
-        int otp = (int) (Math.random() * 900000) + 100000;
-        return String.valueOf(otp);
+    private static final RedisScript<Long> ISSUE = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'code', ARGV[1], 'sellers', ARGV[2], 'attempts', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /*{outcome, detail}: 1 verified (claimed) | 0 no code, or claimed | -1 wrong (detail: attempts left) | -2 locked (detail: ms left) | -3 not a seller*/
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Object>> VERIFY = new DefaultRedisScript<>("""
+            local state = redis.call('HMGET', KEYS[1], 'code', 'sellers', 'attempts')
+            if not state[1] then return {0, 0} end
+            if not string.find(state[2], ARGV[2], 1, true) then return {-3, 0} end
+            if redis.call('EXISTS', KEYS[3]) == 1 then return {0, 0} end
+            local maxCode = tonumber(ARGV[3])
+            local maxOrder = tonumber(ARGV[4])
+            local attempts = tonumber(state[3]) or 0
+            local total = tonumber(redis.call('GET', KEYS[2])) or 0
+            if total >= maxOrder then return {-2, math.max(redis.call('PTTL', KEYS[2]), 0)} end
+            if attempts >= maxCode then return {-2, math.max(redis.call('PTTL', KEYS[1]), 0)} end
+            if state[1] == ARGV[1] then
+                redis.call('SET', KEYS[3], '1', 'PX', ARGV[6])
+                return {1, 0}
+            end
+            attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            total = redis.call('INCR', KEYS[2])
+            if total == 1 then redis.call('PEXPIRE', KEYS[2], ARGV[5]) end
+            if total >= maxOrder then return {-2, math.max(redis.call('PTTL', KEYS[2]), 0)} end
+            if attempts >= maxCode then return {-2, math.max(redis.call('PTTL', KEYS[1]), 0)} end
+            return {-1, math.min(maxCode - attempts, maxOrder - total)}
+            """, (Class<List<Object>>) (Class<?>) List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Mac> hmac;
+    private final Duration ttl;
+    private final Duration lockout;
+    private final int maxAttempts;
+    private final int maxOrderAttempts;
+
+    public OtpService(StringRedisTemplate stringRedisTemplate,
+                      @Value("${otp.hmac-secret}") String hmacSecret,
+                      @Value("${otp.ttl-minutes:10}") long ttlMinutes,
+                      @Value("${otp.lockout-minutes:60}") long lockoutMinutes,
+                      @Value("${otp.max-attempts:5}") int maxAttempts,
+                      @Value("${otp.max-order-attempts:15}") int maxOrderAttempts) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.lockout = Duration.ofMinutes(lockoutMinutes);
+        this.maxAttempts = maxAttempts;
+        this.maxOrderAttempts = maxOrderAttempts;
+
+        byte[] secret = hmacSecret.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("otp.hmac-secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.hmac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 unavailable", e);
+            }
+        });
+    }
+
+    /*A fresh 6-digit code for the order, replacing any earlier one; only the sellers may verify it*/
+    public String issue(Long orderId, Collection<Long> sellerIds) {
+        String code = String.valueOf(100000 + secureRandom.nextInt(900000));
+        String sellers = sellerIds.stream().map(String::valueOf).collect(Collectors.joining(",", ",", ","));
+        stringRedisTemplate.execute(ISSUE, List.of(KEY_PREFIX + tag(orderId)),
+                hash(orderId, code), sellers, String.valueOf(ttl.toMillis()));
+        return code;
     }
+
     public LocalDateTime getExpiryDate(){
-        return LocalDateTime.now().plusMinutes(10);
+        return LocalDateTime.now().plus(ttl);
     }
+
     public void sendOTPToBuyer(String email, String otpCode){
 
 
     }
-    public boolean verifyOTP(String requestOTPCode, String orderOTPCode, LocalDateTime expiryDate){
-        if(Objects.equals(requestOTPCode, orderOTPCode) && !expiryDate.isBefore(LocalDateTime.now())){
-            return true;
-        }
-        else{
-            return false;
-        }
+
+    /*VERIFIED claims the code: follow it with consume() or release()*/
+    public Verification verify(Long orderId, Long sellerId, String code) {
+        String tag = tag(orderId);
+        List<Object> result = stringRedisTemplate.execute(VERIFY,
+                List.of(KEY_PREFIX + tag, ATTEMPTS_KEY_PREFIX + tag, CLAIM_KEY_PREFIX + tag),
+                hash(orderId, code),
+                "," + sellerId + ",",
+                String.valueOf(maxAttempts),
+                String.valueOf(maxOrderAttempts),
+                String.valueOf(lockout.toMillis()),
+                String.valueOf(CLAIM_TTL.toMillis()));
+
+        long outcome = (Long) result.get(0);
+        long detail = (Long) result.get(1);
+        return switch ((int) outcome) {
+            case 1 -> new Verification(Outcome.VERIFIED, 0);
+            case -1 -> new Verification(Outcome.WRONG_CODE, detail);
+            case -2 -> new Verification(Outcome.LOCKED, Math.max(1, Duration.ofMillis(detail).toSeconds()));
+            case -3 -> new Verification(Outcome.NOT_SELLER, 0);
+            default -> new Verification(Outcome.NO_CODE, 0);
+        };
+    }
+
+    /*The order was completed: the code and the order's attempt count are done with*/
+    public void consume(Long orderId) {
+        String tag = tag(orderId);
+        stringRedisTemplate.delete(List.of(KEY_PREFIX + tag, ATTEMPTS_KEY_PREFIX + tag, CLAIM_KEY_PREFIX + tag));
+    }
+
+    /*The completion didn't go through: the claimed code can be entered again*/
+    public void release(Long orderId) {
+        stringRedisTemplate.delete(CLAIM_KEY_PREFIX + tag(orderId));
+    }
+
+    private String hash(Long orderId, String code) {
+        byte[] digest = hmac.get().doFinal((orderId + ":" + code).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static String tag(Long orderId) {
+        return "{" + orderId + "}";
+    }
+
+    public enum Outcome { VERIFIED, WRONG_CODE, LOCKED, NOT_SELLER, NO_CODE }
+
+    /*detail: attempts left after WRONG_CODE, seconds until unlocked after LOCKED*/
+    public record Verification(Outcome outcome, long detail) {
     }
 }
@@ -0,0 +1,193 @@
+package org.example.dormigobackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dormigobackend.Repository.OrderRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Captures the payments of completed orders off the request thread.
+ *
+ * Completing an order only sets stripe_payment_status = capture_pending; that
+ * row is the queue entry, so nothing is lost on a restart. enqueue() (after the
+ * completion commits) schedules a drain within payment.capture.batch-window-ms,
+ * so a burst of handoffs is captured together; the periodic sweep picks up
+ * anything left behind (failed captures, other nodes, a restart).
+ *
+ * A drain takes up to payment.capture.batch-size pending orders, captures them
+ * on payment.capture.concurrency threads, then writes Succeeded back for all the
+ * successful ones in one UPDATE. A retry, or two nodes draining the same order,
+ * can't capture twice because the capture itself is a guarded requires_capture ->
+ * succeeded transition on the payment ledger; the "capture:{intentId}" idempotency
+ * key only saves the provider round trip on a node that already sent it.
+ * Failed drains are counted in orders.capture_attempts, so the count survives
+ * restarts and is shared by all nodes; an intent that keeps failing is marked
+ * capture_failed after payment.capture.max-attempts drains.
+ *
+ * dormigo.payment.capture{outcome}  captured | failed | abandoned
+ * */
+@Service
+@Slf4j
+public class PaymentCaptureQueue implements DisposableBean {
+
+    public static final String CAPTURE_PENDING = "capture_pending";
+    public static final String CAPTURED = "Succeeded";
+    public static final String CAPTURE_FAILED = "capture_failed";
+    // A lagging replica can hand back orders already captured; the sweep finishes a long queue
+    private static final int MAX_BATCHES_PER_DRAIN = 20;
+
+    private final OrderRepository orderRepository;
+    private final MockPaymentService mockPaymentService;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long batchWindowMillis;
+    private final int maxAttempts;
+    private final long captureTimeoutMillis;
+
+    private final ScheduledExecutorService coordinator;
+    private final ExecutorService capturers;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public PaymentCaptureQueue(OrderRepository orderRepository,
+                               MockPaymentService mockPaymentService,
+                               MeterRegistry meterRegistry,
+                               @Value("${payment.capture.batch-size:100}") int batchSize,
+                               @Value("${payment.capture.batch-window-ms:500}") long batchWindowMillis,
+                               @Value("${payment.capture.concurrency:4}") int concurrency,
+                               @Value("${payment.capture.max-attempts:10}") int maxAttempts,
+                               @Value("${payment.capture.timeout-ms:10000}") long captureTimeoutMillis) {
+        this.orderRepository = orderRepository;
+        this.mockPaymentService = mockPaymentService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxAttempts = maxAttempts;
+        this.captureTimeoutMillis = captureTimeoutMillis;
+
+        this.coordinator = Executors.newSingleThreadScheduledExecutor(daemonThreads("payment-capture-"));
+        this.capturers = Executors.newFixedThreadPool(concurrency, daemonThreads("payment-capturer-"));
+    }
+
+    /*Call inside the transaction that completes the order: the drain is only requested once it commits*/
+    public void enqueue(String paymentIntentId) {
+        log.debug("Capture of {} queued", paymentIntentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDrain(batchWindowMillis);
+                }
+            });
+        } else {
+            requestDrain(batchWindowMillis);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void drainOnStartup() {
+        requestDrain(0);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.capture.sweep-ms:30000}")
+    public void sweep() {
+        requestDrain(0);
+    }
+
+    private void requestDrain(long delayMillis) {
+        // Only the first request in a window schedules a drain; the rest ride along with it
+        if (scheduled.compareAndSet(false, true)) {
+            coordinator.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        try {
+            List<OrderRepository.PendingCapture> batch;
+            int batches = 0;
+            do {
+                batch = orderRepository.findCapturesByPaymentStatus(CAPTURE_PENDING, PageRequest.of(0, batchSize));
+                if (!batch.isEmpty() && captureBatch(batch) == 0) {
+                    // Nothing went through (provider down?): leave the rest to the next sweep
+                    break;
+                }
+            } while (batch.size() == batchSize && ++batches < MAX_BATCHES_PER_DRAIN);
+        } catch (Exception e) {
+            log.warn("Payment capture drain failed ❌", e);
+        }
+    }
+
+    /*Returns how many orders left the queue*/
+    private int captureBatch(List<OrderRepository.PendingCapture> pending) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(pending.size());
+        for (OrderRepository.PendingCapture capture : pending) {
+            String paymentIntentId = capture.getPaymentIntentId();
+            futures.add(capturers.submit(
+                    () -> mockPaymentService.capturePayment(paymentIntentId, "capture:" + paymentIntentId)));
+        }
+
+        List<String> captured = new ArrayList<>();
+        List<String> retried = new ArrayList<>();
+        List<String> abandoned = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            String paymentIntentId = pending.get(i).getPaymentIntentId();
+            try {
+                futures.get(i).get(captureTimeoutMillis, TimeUnit.MILLISECONDS);
+                captured.add(paymentIntentId);
+            } catch (ExecutionException | TimeoutException e) {
+                futures.get(i).cancel(true);
+                int failures = pending.get(i).getCaptureAttempts() + 1;
+                if (failures >= maxAttempts) {
+                    abandoned.add(paymentIntentId);
+                    log.error("Capture of {} abandoned after {} attempts ❌", paymentIntentId, failures, e);
+                } else {
+                    retried.add(paymentIntentId);
+                    log.warn("Capture of {} failed (attempt {}), will retry: {}", paymentIntentId, failures, e.getMessage());
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!captured.isEmpty()) {
+            orderRepository.updatePaymentStatus(captured, CAPTURE_PENDING, CAPTURED, now);
+            meterRegistry.counter("dormigo.payment.capture", "outcome", "captured").increment(captured.size());
+        }
+        if (!retried.isEmpty()) {
+            orderRepository.recordCaptureFailures(retried, CAPTURE_PENDING, CAPTURE_PENDING, now);
+            meterRegistry.counter("dormigo.payment.capture", "outcome", "failed").increment(retried.size());
+        }
+        if (!abandoned.isEmpty()) {
+            orderRepository.recordCaptureFailures(abandoned, CAPTURE_PENDING, CAPTURE_FAILED, now);
+            meterRegistry.counter("dormigo.payment.capture", "outcome", "abandoned").increment(abandoned.size());
+        }
+        log.info("Captured {} of {} queued payments ✅", captured.size(), pending.size());
+        return captured.size() + abandoned.size();
+    }
+
+    @Override
+    public void destroy() {
+        coordinator.shutdownNow();
+        capturers.shutdownNow();
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
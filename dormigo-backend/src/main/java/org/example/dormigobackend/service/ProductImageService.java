@@ -151,10 +151,10 @@ public class ProductImageService {
         long userId = userPrincipal.getId();
 
         if(!product.getSeller().getId().equals(userId)){
-            log.info("User is not owner of product with id {}", product.getId());
+            log.warn("User {} is not owner of product with id {}", userId, product.getId());
             throw new ForbiddenException("User is not owner of product with id " + product.getId());
         }
-        log.info("User is owner of product with id {}", product.getId());
+        log.debug("User is owner of product with id {}", product.getId());
     }
 
     public void removeExistingPrimaryImage(Long productId){
@@ -14,10 +14,11 @@ import org.example.dormigobackend.dto.response.PageResponse;
 import org.example.dormigobackend.dto.response.ProductResponse;
 import org.example.dormigobackend.exception.ResourceNotFoundException;
 import org.example.dormigobackend.exception.UnauthorizedException;
+import org.example.dormigobackend.jfr.SearchEvent;
 import org.example.dormigobackend.mapper.ProductMapper;
 import org.example.dormigobackend.security.UserPrincipal;
 import jakarta.annotation.Nullable;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -28,6 +29,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Collection;
@@ -36,6 +38,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "dormigo.service", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
@@ -80,8 +83,10 @@ public class ProductService {
     }
 
     @Cacheable(value = "products",
-    key = "'page:' + #page + 'size:' + #size + 'sortBy:' + #sortBy + 'sortDir:' + #sortDir"
+    key = "'page:' + #page + 'size:' + #size + 'sortBy:' + #sortBy + 'sortDir:' + #sortDir",
+    sync = true
     )
+    @Transactional(readOnly = true)
     public PageResponse<ProductResponse> getAllAvailableProducts(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -97,8 +102,10 @@ public class ProductService {
     }
 
     @Cacheable(value = "products",
-    key = "'id' + #id"
+    key = "'id' + #id",
+    sync = true
     )
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id){
 
 
@@ -109,6 +116,11 @@ public class ProductService {
         return ProductMapper.toResponse(product);
     }
 
+    @Cacheable(value = "products",
+    key = "'category:' + #id + 'page:' + #page + 'size:' + #size + 'sortBy:' + #sortBy + 'sortDir:' + #sortDir",
+    sync = true
+    )
+    @Transactional(readOnly = true)
     public PageResponse<ProductResponse> getProductsByCategory(int page, int size, Long id, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -119,14 +131,33 @@ public class ProductService {
         return PageResponse.of(dbPage);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(String query, int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return productRepository.searchProducts(query, pageable)
-                .map(ProductMapper::toResponse);
+
+        SearchEvent searchEvent = new SearchEvent();
+        searchEvent.begin();
+        searchEvent.kind = "keyword";
+        searchEvent.keyword = query;
+        searchEvent.page = page;
+        searchEvent.size = size;
+        searchEvent.sort = sortBy + " " + sortDir;
+
+        long phaseStart = System.nanoTime();
+        Page<Product> products = productRepository.searchProducts(query, pageable);
+        searchEvent.query = System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        Page<ProductResponse> response = products.map(ProductMapper::toResponse);
+        searchEvent.mapping = System.nanoTime() - phaseStart;
+        searchEvent.totalElements = products.getTotalElements();
+        searchEvent.commit();
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public List<ProductResponse> getMyProducts(UserPrincipal userPrincipal) {
         Collection<Product> product = productRepository.findBySellerId(userPrincipal.getId());
         return product.stream().map(ProductMapper::toResponse).collect(Collectors.toList());
@@ -190,6 +221,7 @@ public class ProductService {
     }
 
 
+    @Transactional(readOnly = true)
     public Page<ProductResponse> advanceSearchFilter(ProductSearchRequest productSearchRequest) {
 
         int page = productSearchRequest.getPage() != null ? productSearchRequest.getPage() : 0;
@@ -201,16 +233,36 @@ public class ProductService {
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        return productRepository.searchProductsWithFilters(
+        SearchEvent searchEvent = new SearchEvent();
+        searchEvent.begin();
+        searchEvent.kind = "advanced";
+        searchEvent.keyword = productSearchRequest.getKeyword();
+        searchEvent.categoryId = productSearchRequest.getCategoryId() != null ? productSearchRequest.getCategoryId() : 0L;
+        searchEvent.condition = productSearchRequest.getCondition() != null ? productSearchRequest.getCondition().name() : null;
+        searchEvent.page = page;
+        searchEvent.size = size;
+        searchEvent.sort = sortBy + " " + sortDir;
+
+        long phaseStart = System.nanoTime();
+        Page<Product> products = productRepository.searchProductsWithFilters(
                 productSearchRequest.getKeyword(),
                 productSearchRequest.getCategoryId(),
                 productSearchRequest.getCondition(),
                 productSearchRequest.getMinPrice(),
                 productSearchRequest.getMaxPrice(),
                 pageable
-        ).map(ProductMapper::toResponse);
+        );
+        searchEvent.query = System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        Page<ProductResponse> response = products.map(ProductMapper::toResponse);
+        searchEvent.mapping = System.nanoTime() - phaseStart;
+        searchEvent.totalElements = products.getTotalElements();
+        searchEvent.commit();
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByPriceRange(
             BigDecimal minPrice, BigDecimal maxPrice,
             int page, int size, String sortBy, String sortDir) {
@@ -229,6 +281,7 @@ public class ProductService {
         ).map(ProductMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByCondition(
             ProductCondition productCondition,
             int page, int size, String sortBy, String sortDir) {
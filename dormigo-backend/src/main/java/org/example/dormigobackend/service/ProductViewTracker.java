@@ -0,0 +1,88 @@
+package org.example.dormigobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Product detail views, ranked in Redis for the cache warmer.
+ *
+ * dormigo::product-views                 zset    productId -> views
+ * dormigo::product-views:decayed:{date}  string  set by the node that ran that day's decay
+ *
+ * Views are counted in memory and flushed as one pipeline every few seconds,
+ * so a page view never waits on Redis. The nightly decay halves every score
+ * and drops products that fell under one view, keeping the ranking recent; it is
+ * scheduled on every node, so only the first to claim the day's marker runs it.
+ * A view racing a flush can be lost; the ranking doesn't need to be exact.
+ * */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewTracker {
+
+    private static final String VIEWS_KEY = "dormigo::product-views";
+    private static final String DECAYED_KEY_PREFIX = "dormigo::product-views:decayed:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AtomicReference<Map<Long, LongAdder>> pending = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    public void recordView(Long productId) {
+        pending.get().computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${product-views.flush-ms:5000}")
+    public void flush() {
+        Map<Long, LongAdder> views = pending.getAndSet(new ConcurrentHashMap<>());
+        if (views.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                views.forEach((productId, count) -> redis.zIncrBy(VIEWS_KEY, count.sum(), String.valueOf(productId)));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Couldn't flush {} product view counts ❌", views.size(), e);
+        }
+    }
+
+    @Scheduled(cron = "${product-views.decay-cron:0 0 4 * * *}")
+    public void decay() {
+        Boolean claimed = stringRedisTemplate.opsForValue()
+                .setIfAbsent(DECAYED_KEY_PREFIX + LocalDate.now(), "1", Duration.ofDays(2));
+        if (!Boolean.TRUE.equals(claimed)) {
+            log.debug("Product view ranking already decayed today");
+            return;
+        }
+        stringRedisTemplate.opsForZSet().unionAndStore(VIEWS_KEY, List.of(), VIEWS_KEY,
+                Aggregate.SUM, Weights.of(0.5));
+        Long dropped = stringRedisTemplate.opsForZSet().removeRangeByScore(VIEWS_KEY, Double.NEGATIVE_INFINITY, 1);
+        log.info("Product view ranking decayed, {} products dropped", dropped);
+    }
+
+    public List<Long> topViewed(int count) {
+        Set<String> top = stringRedisTemplate.opsForZSet().reverseRange(VIEWS_KEY, 0, count - 1);
+        return top == null ? List.of() : top.stream().map(Long::valueOf).toList();
+    }
+
+    public void forget(Long productId) {
+        stringRedisTemplate.opsForZSet().remove(VIEWS_KEY, String.valueOf(productId));
+    }
+}
@@ -0,0 +1,396 @@
+package org.example.dormigobackend.service;
+
+import org.example.dormigobackend.Entity.Product;
+import org.example.dormigobackend.Enums.OrderStatus;
+import org.example.dormigobackend.Repository.OrderItemRepository;
+import org.example.dormigobackend.Repository.ProductRepository;
+import org.example.dormigobackend.dto.response.SellerSalesSummaryResponse;
+import org.example.dormigobackend.event.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/*
+ * Per-seller sales aggregates kept in Redis and updated on every order transition.
+ *
+ * dormigo::seller-stats:{sellerId}          hash  revenue (paise), units, status:{OrderStatus}, built
+ * dormigo::seller-top-products:{sellerId}   zset  productId -> units sold
+ * dormigo::seller-stats-journal:{sellerId}  list  transitions applied while a rebuild runs (exists only then)
+ * dormigo::seller-stats-recent:{sellerId}   hash  orderId -> status ordinal, as the last rebuild saw it
+ *
+ * Revenue and units count orders that reached COMPLETED (or were disputed afterwards).
+ * The nightly rebuild recomputes everything from order_item, so a missed event only
+ * drifts until the next run. A seller whose hash was never built is rebuilt in the
+ * background on first read.
+ *
+ * A rebuild must neither lose nor double-count the transitions that commit around it.
+ * Statuses only move forward in ordinal order, so "is this transition in the snapshot"
+ * is "did the snapshot see the order at or past the target status". The rebuild reads
+ * its aggregates and the statuses of the seller's recently updated orders from one
+ * snapshot, replays the journaled transitions the snapshot missed, and swaps the result
+ * in with one script (which starts over if the journal grew meanwhile). The recent
+ * statuses stay behind for seller-stats.recent-window-minutes, so a transition whose
+ * listener runs late, after the swap, is skipped if the snapshot already counted it.
+ * */
+@Service
+@Slf4j
+public class SellerStatsService implements DisposableBean {
+
+    private static final String STATS_KEY = "dormigo::seller-stats:";
+    private static final String TOP_PRODUCTS_KEY = "dormigo::seller-top-products:";
+    private static final String JOURNAL_KEY = "dormigo::seller-stats-journal:";
+    private static final String RECENT_KEY = "dormigo::seller-stats-recent:";
+    private static final String REVENUE = "revenue";
+    private static final String UNITS = "units";
+    private static final String STATUS_PREFIX = "status:";
+    private static final String BUILT = "built";
+    private static final int TOP_PRODUCTS = 5;
+    private static final int MAX_SWAP_ATTEMPTS = 5;
+    private static final Duration JOURNAL_TTL = Duration.ofMinutes(10);
+    private static final Set<OrderStatus> REVENUE_STATUSES = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.DISPUTED);
+
+    /*KEYS: stats, top products, journal, recent. ARGV: orderId, target ordinal, journal entry,
+     * status field to decrement ('' for a new order), status field to increment, revenue, units, productId/units pairs*/
+    private static final RedisScript<Long> APPLY = new DefaultRedisScript<>("""
+            local seen = redis.call('HGET', KEYS[4], ARGV[1])
+            if seen and tonumber(seen) >= tonumber(ARGV[2]) then return 0 end
+            if redis.call('EXISTS', KEYS[3]) == 1 then redis.call('RPUSH', KEYS[3], ARGV[3]) end
+            if ARGV[4] ~= '' then redis.call('HINCRBY', KEYS[1], ARGV[4], -1) end
+            redis.call('HINCRBY', KEYS[1], ARGV[5], 1)
+            if ARGV[6] ~= '0' then redis.call('HINCRBY', KEYS[1], 'revenue', ARGV[6]) end
+            if ARGV[7] ~= '0' then redis.call('HINCRBY', KEYS[1], 'units', ARGV[7]) end
+            for i = 8, #ARGV, 2 do redis.call('ZINCRBY', KEYS[2], ARGV[i + 1], ARGV[i]) end
+            return 1
+            """, Long.class);
+
+    /*Opens the journal; 0 if another rebuild of the seller holds it*/
+    private static final RedisScript<Long> BEGIN = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('RPUSH', KEYS[1], 'start')
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /*KEYS: stats, top products, journal, recent. ARGV: expected journal length, recent ttl ms,
+     * hash pair count, zset pair count, then the hash, zset and recent pairs. 0: the journal grew, read it again*/
+    private static final RedisScript<Long> SWAP = new DefaultRedisScript<>("""
+            if redis.call('LLEN', KEYS[3]) ~= tonumber(ARGV[1]) then return 0 end
+            redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4])
+            local hashEnd = 4 + 2 * tonumber(ARGV[3])
+            local zsetEnd = hashEnd + 2 * tonumber(ARGV[4])
+            for i = 5, hashEnd, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end
+            for i = hashEnd + 1, zsetEnd, 2 do redis.call('ZADD', KEYS[2], ARGV[i + 1], ARGV[i]) end
+            for i = zsetEnd + 1, #ARGV, 2 do redis.call('HSET', KEYS[4], ARGV[i], ARGV[i + 1]) end
+            if redis.call('EXISTS', KEYS[4]) == 1 then redis.call('PEXPIRE', KEYS[4], ARGV[2]) end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate snapshot;
+    private final Duration recentWindow;
+
+    // Cold-miss rebuilds, off the request thread; one queued per seller at most
+    private final ExecutorService coldRebuilds;
+    private final Set<Long> coldRebuildsQueued = ConcurrentHashMap.newKeySet();
+
+    public SellerStatsService(StringRedisTemplate stringRedisTemplate,
+                              OrderItemRepository orderItemRepository,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${seller-stats.recent-window-minutes:5}") long recentWindowMinutes) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.recentWindow = Duration.ofMinutes(recentWindowMinutes);
+
+        // Aggregates and recent statuses must come from the same snapshot
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("seller-stats-");
+        threadFactory.setDaemon(true);
+        this.coldRebuilds = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        try {
+            Map<Long, Delta> deltas = new HashMap<>();
+            for (Long sellerId : event.sellerIds()) {
+                deltas.put(sellerId, new Delta(event.orderId(), event.previousStatus(), event.newStatus()));
+            }
+            if (event.newStatus() == OrderStatus.COMPLETED) {
+                for (OrderItemRepository.ItemSale sale : orderItemRepository.findSalesByOrderId(event.orderId())) {
+                    Delta delta = deltas.get(sale.getSellerId());
+                    if (delta != null) {
+                        delta.revenue += toPaise(sale.getSubTotal());
+                        delta.units += sale.getQuantity();
+                        delta.products.merge(String.valueOf(sale.getProductId()), (long) sale.getQuantity(), Long::sum);
+                    }
+                }
+            }
+
+            deltas.forEach((sellerId, delta) -> {
+                List<String> args = new ArrayList<>(List.of(
+                        String.valueOf(delta.orderId),
+                        String.valueOf(delta.to.ordinal()),
+                        delta.encode(),
+                        delta.from == null ? "" : STATUS_PREFIX + delta.from,
+                        STATUS_PREFIX + delta.to,
+                        String.valueOf(delta.revenue),
+                        String.valueOf(delta.units)));
+                delta.products.forEach((productId, units) -> {
+                    args.add(productId);
+                    args.add(String.valueOf(units));
+                });
+                stringRedisTemplate.execute(APPLY, keys(sellerId), args.toArray());
+            });
+        } catch (Exception e) {
+            // The nightly rebuild repairs whatever was missed here
+            log.warn("Couldn't update seller stats for order {} ❌", event.orderId(), e);
+        }
+    }
+
+    public SellerSalesSummaryResponse getSummary(Long sellerId) {
+        String key = STATS_KEY + tag(sellerId);
+        Map<Object, Object> stats = stringRedisTemplate.opsForHash().entries(key);
+        boolean building = !stats.containsKey(BUILT);
+        if (building && coldRebuildsQueued.add(sellerId)) {
+            coldRebuilds.execute(() -> {
+                try {
+                    rebuildSeller(sellerId);
+                } catch (Exception e) {
+                    log.warn("Couldn't build seller stats for seller {} ❌", sellerId, e);
+                } finally {
+                    coldRebuildsQueued.remove(sellerId);
+                }
+            });
+        }
+
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, parseLong(stats.get(STATUS_PREFIX + status)));
+        }
+
+        return SellerSalesSummaryResponse.builder()
+                .sellerId(sellerId)
+                .totalRevenue(BigDecimal.valueOf(parseLong(stats.get(REVENUE)), 2))
+                .unitsSold(parseLong(stats.get(UNITS)))
+                .ordersByStatus(ordersByStatus)
+                .topProducts(topProducts(sellerId))
+                .building(building)
+                .build();
+    }
+
+    @Scheduled(cron = "${seller-stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        List<Long> sellerIds = orderItemRepository.findDistinctSellerIds();
+        log.info("Rebuilding seller stats for {} sellers", sellerIds.size());
+        sellerIds.forEach(this::rebuildSeller);
+        log.info("Seller stats rebuilt ✅");
+    }
+
+    public void rebuildSeller(Long sellerId) {
+        List<String> keys = keys(sellerId);
+        String journalKey = keys.get(2);
+        Long began = stringRedisTemplate.execute(BEGIN, List.of(journalKey), String.valueOf(JOURNAL_TTL.toMillis()));
+        if (began == null || began == 0) {
+            log.debug("Seller stats of seller {} are already being rebuilt", sellerId);
+            return;
+        }
+
+        boolean swapped = false;
+        try {
+            swapped = Boolean.TRUE.equals(snapshot.execute(status -> rebuildFromSnapshot(sellerId, keys)));
+        } finally {
+            if (!swapped) {
+                stringRedisTemplate.delete(journalKey);
+            }
+        }
+    }
+
+    private boolean rebuildFromSnapshot(Long sellerId, List<String> keys) {
+        Map<String, Long> stats = new HashMap<>();
+        for (OrderItemRepository.StatusCount count : orderItemRepository.countOrdersByStatusForSeller(sellerId)) {
+            stats.put(STATUS_PREFIX + count.getStatus(), count.getOrderCount());
+        }
+        Map<String, Long> productUnits = new HashMap<>();
+        long revenue = 0;
+        long units = 0;
+        for (OrderItemRepository.ProductSale sale : orderItemRepository.sumProductSalesForSeller(sellerId, REVENUE_STATUSES)) {
+            revenue += toPaise(sale.getRevenue());
+            units += sale.getUnits();
+            productUnits.put(String.valueOf(sale.getProductId()), sale.getUnits());
+        }
+        stats.put(REVENUE, revenue);
+        stats.put(UNITS, units);
+        stats.put(BUILT, 1L);
+
+        Map<Long, OrderStatus> seen = new HashMap<>();
+        for (OrderItemRepository.RecentOrder order : orderItemRepository.findRecentOrdersForSeller(
+                sellerId, LocalDateTime.now().minus(recentWindow))) {
+            seen.put(order.getOrderId(), order.getStatus());
+        }
+
+        for (int attempt = 1; attempt <= MAX_SWAP_ATTEMPTS; attempt++) {
+            List<String> journal = stringRedisTemplate.opsForList().range(keys.get(2), 1, -1);
+            Map<String, Long> hash = new HashMap<>(stats);
+            Map<String, Long> top = new HashMap<>(productUnits);
+            for (String entry : journal == null ? List.<String>of() : journal) {
+                Delta delta = Delta.decode(entry);
+                OrderStatus status = seen.get(delta.orderId);
+                if (status == null || status.ordinal() < delta.to.ordinal()) {
+                    delta.applyTo(hash, top);
+                }
+            }
+
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf((journal == null ? 0 : journal.size()) + 1));
+            args.add(String.valueOf(recentWindow.toMillis()));
+            args.add(String.valueOf(hash.size()));
+            args.add(String.valueOf(top.size()));
+            hash.forEach((field, value) -> {
+                args.add(field);
+                args.add(String.valueOf(value));
+            });
+            top.forEach((productId, sold) -> {
+                args.add(productId);
+                args.add(String.valueOf(sold));
+            });
+            seen.forEach((orderId, status) -> {
+                args.add(String.valueOf(orderId));
+                args.add(String.valueOf(status.ordinal()));
+            });
+
+            Long swapped = stringRedisTemplate.execute(SWAP, keys, args.toArray());
+            if (swapped != null && swapped == 1) {
+                return true;
+            }
+        }
+        log.warn("Seller stats of seller {} kept changing, rebuild left to the next run ❌", sellerId);
+        return false;
+    }
+
+    private List<SellerSalesSummaryResponse.TopProduct> topProducts(Long sellerId) {
+        Set<ZSetOperations.TypedTuple<String>> top = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(TOP_PRODUCTS_KEY + tag(sellerId), 0, TOP_PRODUCTS - 1);
+        if (top == null || top.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> productIds = top.stream().map(tuple -> Long.valueOf(tuple.getValue())).toList();
+        Map<Long, String> titles = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getTitle));
+
+        return top.stream()
+                .map(tuple -> {
+                    Long productId = Long.valueOf(tuple.getValue());
+                    return SellerSalesSummaryResponse.TopProduct.builder()
+                            .productId(productId)
+                            .productTitle(titles.get(productId))
+                            .unitsSold(tuple.getScore() == null ? 0L : tuple.getScore().longValue())
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        coldRebuilds.shutdownNow();
+    }
+
+    /*The braces keep a seller's keys in one cluster slot, so one script can touch them all*/
+    private static List<String> keys(Long sellerId) {
+        String tag = tag(sellerId);
+        return List.of(STATS_KEY + tag, TOP_PRODUCTS_KEY + tag, JOURNAL_KEY + tag, RECENT_KEY + tag);
+    }
+
+    private static String tag(Long sellerId) {
+        return "{" + sellerId + "}";
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).longValue();
+    }
+
+    private static long parseLong(Object value) {
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+
+    /*One order transition as seen by one seller; journaled as "orderId|from|to|revenue|units|productId:units,..."*/
+    private static final class Delta {
+
+        private final Long orderId;
+        private final OrderStatus from;
+        private final OrderStatus to;
+        private long revenue;
+        private long units;
+        private final Map<String, Long> products = new HashMap<>();
+
+        private Delta(Long orderId, OrderStatus from, OrderStatus to) {
+            this.orderId = orderId;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void applyTo(Map<String, Long> hash, Map<String, Long> top) {
+            if (from != null) {
+                hash.merge(STATUS_PREFIX + from, -1L, Long::sum);
+            }
+            hash.merge(STATUS_PREFIX + to, 1L, Long::sum);
+            hash.merge(REVENUE, revenue, Long::sum);
+            hash.merge(UNITS, units, Long::sum);
+            products.forEach((productId, sold) -> top.merge(productId, sold, Long::sum));
+        }
+
+        private String encode() {
+            String productUnits = products.entrySet().stream()
+                    .map(entry -> entry.getKey() + ":" + entry.getValue())
+                    .collect(Collectors.joining(","));
+            return orderId + "|" + (from == null ? "" : from.name()) + "|" + to.name()
+                    + "|" + revenue + "|" + units + "|" + productUnits;
+        }
+
+        private static Delta decode(String entry) {
+            String[] parts = entry.split("\\|", -1);
+            Delta delta = new Delta(Long.valueOf(parts[0]),
+                    parts[1].isEmpty() ? null : OrderStatus.valueOf(parts[1]),
+                    OrderStatus.valueOf(parts[2]));
+            delta.revenue = Long.parseLong(parts[3]);
+            delta.units = Long.parseLong(parts[4]);
+            if (!parts[5].isEmpty()) {
+                for (String productUnits : parts[5].split(",")) {
+                    int colon = productUnits.indexOf(':');
+                    delta.products.put(productUnits.substring(0, colon), Long.parseLong(productUnits.substring(colon + 1)));
+                }
+            }
+            return delta;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.example.dormigobackend.Repository.UserRepository;
 import org.example.dormigobackend.dto.response.UserResponse;
 import org.example.dormigobackend.exception.ResourceNotFoundException;
 import org.example.dormigobackend.mapper.UserMapper;
+import org.example.dormigobackend.security.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
 import org.springframework.cache.annotation.CachePut;
@@ -22,8 +23,11 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final RefreshTokenService refreshTokenService;
 
-    @Cacheable(value = "users", key = "'all'")
+    @Cacheable(value = "users", key = "'all'", sync = true)
+    @Transactional(readOnly = true)
     public @Nullable List<UserResponse> getAllUsers() {
         Collection<User> users = userRepository.findAll();
         return users.stream().map(UserMapper::toResponse).collect(Collectors.toList());
@@ -31,11 +35,13 @@ public class UserService {
     }
 
 
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllActiveUsers() {
         return userRepository.findByIsActiveFalse().stream()
                 .map(UserMapper::toResponse)
                 .collect(Collectors.toList());
     }
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllInactiveActiveUsers() {
         return userRepository.findByIsActiveTrue().stream()
                 .map(UserMapper::toResponse)
@@ -55,6 +61,9 @@ public class UserService {
         user.setIsActive(false);
 
         User deactivatedUser = userRepository.save(user);
+        entityCacheEvictor.evict(User.class, id);
+        // Refresh tokens stop working and access tokens already out are refused on every node
+        refreshTokenService.endAllSessions(user.getEmail());
         return UserMapper.toResponse(deactivatedUser);
     }
 
@@ -69,6 +78,7 @@ public class UserService {
         }
         user.setIsActive(true);
         User activatedUser = userRepository.save(user);
+        entityCacheEvictor.evict(User.class, id);
         return UserMapper.toResponse(activatedUser);
     }
 
@@ -77,9 +87,11 @@ public class UserService {
             throw new ResourceNotFoundException("User not found");
         }
         userRepository.deleteById(id);
+        entityCacheEvictor.evict(User.class, id);
     }
 
-    @Cacheable(value = "users", key = "'id' + #id")
+    @Cacheable(value = "users", key = "'id' + #id", sync = true)
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("User", "id", id)
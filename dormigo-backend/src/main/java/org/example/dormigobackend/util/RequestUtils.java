@@ -52,58 +52,7 @@ public class RequestUtils {
      * Get device and browser info from User-Agent header
      */
     public static String getDeviceInfo(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-
-        if (userAgent == null || userAgent.isEmpty()) {
-            return "Unknown Device";
-        }
-
-        return parseUserAgent(userAgent);
-    }
-
-    /**
-     * Parse User-Agent string to human-readable format
-     */
-    private static String parseUserAgent(String userAgent) {
-        // Extract browser
-        String browser = "Unknown Browser";
-        if (userAgent.contains("Chrome") && ! userAgent.contains("Edg")) {
-            browser = "Chrome";
-        } else if (userAgent.contains("Safari") && !userAgent.contains("Chrome")) {
-            browser = "Safari";
-        } else if (userAgent.contains("Firefox")) {
-            browser = "Firefox";
-        } else if (userAgent.contains("Edg")) {
-            browser = "Edge";
-        } else if (userAgent.contains("Opera") || userAgent.contains("OPR")) {
-            browser = "Opera";
-        }
-
-        // Extract OS
-        String os = "Unknown OS";
-        if (userAgent. contains("Windows NT 10.0")) {
-            os = "Windows 10";
-        } else if (userAgent.contains("Windows NT 11. 0")) {
-            os = "Windows 11";
-        } else if (userAgent.contains("Mac OS X")) {
-            os = "macOS";
-        } else if (userAgent.contains("Linux")) {
-            os = "Linux";
-        } else if (userAgent.contains("Android")) {
-            os = "Android";
-        } else if (userAgent.contains("iPhone") || userAgent.contains("iPad")) {
-            os = "iOS";
-        }
-
-        // Extract device type
-        String deviceType = "Desktop";
-        if (userAgent. contains("Mobile")) {
-            deviceType = "Mobile";
-        } else if (userAgent.contains("Tablet") || userAgent.contains("iPad")) {
-            deviceType = "Tablet";
-        }
-
-        return String.format("%s on %s (%s)", browser, os, deviceType);
+        return UserAgentClassifier.classify(request.getHeader("User-Agent")).deviceInfo();
     }
 
     /**
@@ -111,44 +60,15 @@ public class RequestUtils {
      */
     public static DeviceDetails getDeviceDetails(HttpServletRequest request) {
         String userAgent = request.getHeader("User-Agent");
-        String ipAddress = getClientIpAddress(request);
-        String deviceInfo = getDeviceInfo(request);
+        UserAgentClassifier.UserAgentInfo info = UserAgentClassifier.classify(userAgent);
 
         return DeviceDetails.builder()
-                .ipAddress(ipAddress)
+                .ipAddress(getClientIpAddress(request))
                 .userAgent(userAgent)
-                .deviceInfo(deviceInfo)
-                .browser(extractBrowser(userAgent))
-                .os(extractOS(userAgent))
-                .deviceType(extractDeviceType(userAgent))
+                .deviceInfo(info.deviceInfo())
+                .browser(info.browser())
+                .os(info.os())
+                .deviceType(info.deviceType())
                 .build();
     }
-
-    // Helper methods
-    private static String extractBrowser(String userAgent) {
-        if (userAgent == null) return "Unknown";
-        if (userAgent.contains("Chrome") && !userAgent.contains("Edg")) return "Chrome";
-        if (userAgent.contains("Safari") && !userAgent.contains("Chrome")) return "Safari";
-        if (userAgent.contains("Firefox")) return "Firefox";
-        if (userAgent.contains("Edg")) return "Edge";
-        return "Unknown";
-    }
-
-    private static String extractOS(String userAgent) {
-        if (userAgent == null) return "Unknown";
-        if (userAgent.contains("Windows NT 10.0")) return "Windows 10";
-        if (userAgent.contains("Windows NT 11.0")) return "Windows 11";
-        if (userAgent.contains("Mac OS X")) return "macOS";
-        if (userAgent.contains("Android")) return "Android";
-        if (userAgent.contains("iPhone") || userAgent.contains("iPad")) return "iOS";
-        if (userAgent.contains("Linux")) return "Linux";
-        return "Unknown";
-    }
-
-    private static String extractDeviceType(String userAgent) {
-        if (userAgent == null) return "Unknown";
-        if (userAgent. contains("Mobile")) return "Mobile";
-        if (userAgent.contains("Tablet") || userAgent.contains("iPad")) return "Tablet";
-        return "Desktop";
-    }
-}
\ No newline at end of file
+}
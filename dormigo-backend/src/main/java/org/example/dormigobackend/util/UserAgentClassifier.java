@@ -0,0 +1,216 @@
+package org.example.dormigobackend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/*
+ * Classifies a User-Agent into browser, OS and device type in one pass.
+ *
+ * The known tokens are compiled once into an Aho-Corasick automaton (a full
+ * transition table over ASCII), so a scan is one table lookup per character and
+ * yields a bitmask of the tokens seen; the rules below only test bits.
+ * Every possible answer is built up front, so a classification returns a shared
+ * instance and allocates nothing.
+ *
+ * Real traffic has few distinct User-Agents, so results are also cached per raw
+ * string (bounded, and only for strings of a sane length).
+ * */
+public final class UserAgentClassifier {
+
+    public static final UserAgentInfo UNKNOWN =
+            new UserAgentInfo("Unknown", "Unknown", "Unknown", "Unknown Device");
+
+    private static final int CACHE_SIZE = 1024;
+    private static final int MAX_CACHED_LENGTH = 512;
+    private static final int ALPHABET = 128;
+
+    private enum Token {
+        EDGE("Edg"),
+        OPR("OPR"),
+        OPERA("Opera"),
+        FIREFOX("Firefox"),
+        FIREFOX_IOS("FxiOS"),
+        CHROME("Chrome"),
+        CHROME_IOS("CriOS"),
+        SAFARI("Safari"),
+        WINDOWS_10("Windows NT 10.0"),
+        MAC_OS("Mac OS X"),
+        ANDROID("Android"),
+        LINUX("Linux"),
+        IPHONE("iPhone"),
+        IPAD("iPad"),
+        MOBILE("Mobile"),
+        TABLET("Tablet");
+
+        private final String text;
+
+        Token(String text) {
+            this.text = text;
+        }
+
+        long bit() {
+            return 1L << ordinal();
+        }
+    }
+
+    private static final String[] BROWSERS = {"Edge", "Opera", "Firefox", "Chrome", "Safari", "Unknown"};
+    private static final String[] OPERATING_SYSTEMS = {"iOS", "Android", "Windows 10", "macOS", "Linux", "Unknown"};
+    private static final String[] DEVICE_TYPES = {"Tablet", "Mobile", "Desktop"};
+
+    /* [browser][os][deviceType] */
+    private static final UserAgentInfo[][][] RESULTS = buildResults();
+
+    /* transitions[state * ALPHABET + c] -> next state; matches[state] -> tokens ending there */
+    private static final int[] transitions;
+    private static final long[] matches;
+
+    static {
+        int maxStates = 1;
+        for (Token token : Token.values()) {
+            maxStates += token.text.length();
+        }
+
+        int[] gotos = new int[maxStates * ALPHABET];
+        Arrays.fill(gotos, -1);
+        long[] output = new long[maxStates];
+        int states = 1;
+
+        for (Token token : Token.values()) {
+            int state = 0;
+            for (char c : token.text.toCharArray()) {
+                int slot = state * ALPHABET + c;
+                if (gotos[slot] < 0) {
+                    gotos[slot] = states++;
+                }
+                state = gotos[slot];
+            }
+            output[state] |= token.bit();
+        }
+
+        // Breadth-first: fill the missing edges from the failure links, so the scan never backtracks
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = gotos[c];
+            if (next < 0) {
+                gotos[c] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[fail[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int slot = state * ALPHABET + c;
+                int next = gotos[slot];
+                if (next < 0) {
+                    gotos[slot] = gotos[fail[state] * ALPHABET + c];
+                } else {
+                    fail[next] = gotos[fail[state] * ALPHABET + c];
+                    queue.add(next);
+                }
+            }
+        }
+
+        transitions = Arrays.copyOf(gotos, states * ALPHABET);
+        matches = Arrays.copyOf(output, states);
+    }
+
+    private static final Cache<String, UserAgentInfo> CACHE = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    private UserAgentClassifier() {
+    }
+
+    public static UserAgentInfo classify(String userAgent) {
+        if (userAgent == null || userAgent.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (userAgent.length() > MAX_CACHED_LENGTH) {
+            return classifyUncached(userAgent);
+        }
+        return CACHE.get(userAgent, UserAgentClassifier::classifyUncached);
+    }
+
+    public static UserAgentInfo classifyUncached(String userAgent) {
+        long seen = scan(userAgent);
+        return RESULTS[browser(seen)][os(seen)][deviceType(seen)];
+    }
+
+    private static long scan(String userAgent) {
+        int[] table = transitions;
+        int state = 0;
+        long seen = 0;
+        for (int i = 0, n = userAgent.length(); i < n; i++) {
+            char c = userAgent.charAt(i);
+            // No token contains anything outside ASCII, so such a character ends every partial match
+            state = c < ALPHABET ? table[state * ALPHABET + c] : 0;
+            seen |= matches[state];
+        }
+        return seen;
+    }
+
+    /*
+     * Most specific first: Edge and Opera also send "Chrome", Chrome also sends "Safari",
+     * iOS also sends "Mac OS X" and Android also sends "Linux".
+     * Windows 11 still reports "Windows NT 10.0", so it can't be told apart.
+     * */
+
+    private static int browser(long seen) {
+        if (has(seen, Token.EDGE)) return 0;
+        if (has(seen, Token.OPR) || has(seen, Token.OPERA)) return 1;
+        if (has(seen, Token.FIREFOX) || has(seen, Token.FIREFOX_IOS)) return 2;
+        if (has(seen, Token.CHROME) || has(seen, Token.CHROME_IOS)) return 3;
+        if (has(seen, Token.SAFARI)) return 4;
+        return 5;
+    }
+
+    private static int os(long seen) {
+        if (has(seen, Token.IPHONE) || has(seen, Token.IPAD)) return 0;
+        if (has(seen, Token.ANDROID)) return 1;
+        if (has(seen, Token.WINDOWS_10)) return 2;
+        if (has(seen, Token.MAC_OS)) return 3;
+        if (has(seen, Token.LINUX)) return 4;
+        return 5;
+    }
+
+    private static int deviceType(long seen) {
+        // iPads send "Mobile" too; Android tablets are the Android devices that don't
+        if (has(seen, Token.IPAD) || has(seen, Token.TABLET)) return 0;
+        if (has(seen, Token.MOBILE)) return 1;
+        if (has(seen, Token.ANDROID)) return 0;
+        return 2;
+    }
+
+    private static boolean has(long seen, Token token) {
+        return (seen & token.bit()) != 0;
+    }
+
+    private static UserAgentInfo[][][] buildResults() {
+        UserAgentInfo[][][] results = new UserAgentInfo[BROWSERS.length][OPERATING_SYSTEMS.length][DEVICE_TYPES.length];
+        for (int b = 0; b < BROWSERS.length; b++) {
+            for (int o = 0; o < OPERATING_SYSTEMS.length; o++) {
+                for (int d = 0; d < DEVICE_TYPES.length; d++) {
+                    String browser = BROWSERS[b];
+                    String os = OPERATING_SYSTEMS[o];
+                    String deviceInfo = ("Unknown".equals(browser) ? "Unknown Browser" : browser)
+                            + " on " + ("Unknown".equals(os) ? "Unknown OS" : os)
+                            + " (" + DEVICE_TYPES[d] + ")";
+                    results[b][o][d] = new UserAgentInfo(browser, os, DEVICE_TYPES[d], deviceInfo);
+                }
+            }
+        }
+        return results;
+    }
+
+    /* deviceInfo: "Chrome on Windows 10 (Desktop)" */
+    public record UserAgentInfo(String browser, String os, String deviceType, String deviceInfo) {
+    }
+}
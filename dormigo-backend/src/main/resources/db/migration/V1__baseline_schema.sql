@@ -0,0 +1,114 @@
+-- Baseline: the schema exactly as the entities map it (what ddl-auto=update built
+-- before Flyway took over). Databases created that way are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and only run what follows.
+
+CREATE TABLE users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(100) NOT NULL,
+    last_name    VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(20),
+    role         VARCHAR(255) NOT NULL,
+    is_active    BOOLEAN      NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_phone_number UNIQUE (phone_number),
+    CONSTRAINT ck_users_role CHECK (role IN ('ADMIN', 'STUDENT'))
+);
+
+CREATE TABLE category (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(20)  NOT NULL,
+    description VARCHAR(100) NOT NULL,
+    create_at   TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE product (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title             VARCHAR(255)   NOT NULL,
+    description       VARCHAR(5000)  NOT NULL,
+    price             NUMERIC(10, 2) NOT NULL,
+    quantity          INTEGER        NOT NULL,
+    product_condition VARCHAR(255)   NOT NULL,
+    category_id       BIGINT         NOT NULL,
+    seller_id         BIGINT         NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6)   NOT NULL,
+    is_available      BOOLEAN        NOT NULL,
+    CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id),
+    CONSTRAINT fk_product_seller FOREIGN KEY (seller_id) REFERENCES users (id),
+    CONSTRAINT ck_product_condition CHECK (product_condition IN ('LIKE_NEW', 'NEW', 'GOOD', 'FAIR', 'POOR'))
+);
+
+CREATE TABLE product_image (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    image_url            VARCHAR(500),
+    file_name            VARCHAR(255),
+    file_type            VARCHAR(50),
+    file_size            BIGINT,
+    cloudinary_public_id VARCHAR(255),
+    is_primary           BOOLEAN,
+    product_id           BIGINT       NOT NULL,
+    uploaded_at          TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_product_image_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE cart (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_cart_user UNIQUE (user_id),
+    CONSTRAINT fk_cart_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE cart_item (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT       NOT NULL,
+    cart_id    BIGINT,
+    quantity   INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_cart_item_product FOREIGN KEY (product_id) REFERENCES product (id),
+    CONSTRAINT fk_cart_item_cart FOREIGN KEY (cart_id) REFERENCES cart (id)
+);
+
+CREATE TABLE orders (
+    id                       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_number             VARCHAR(255)   NOT NULL,
+    buyer_id                 BIGINT         NOT NULL,
+    total_amount             NUMERIC(10, 2) NOT NULL,
+    stripe_payment_intent_id VARCHAR(255)   NOT NULL,
+    stripe_payment_status    VARCHAR(255)   NOT NULL,
+    order_status             VARCHAR(255)   NOT NULL,
+    meeting_location         VARCHAR(500),
+    meeting_time             TIMESTAMP(6),
+    meeting_notes            VARCHAR(2000),
+    otp_code                 VARCHAR(255),
+    otp_generated_at         TIMESTAMP(6),
+    otp_expires_at           TIMESTAMP(6),
+    otp_verified_at          TIMESTAMP(6),
+    created_at               TIMESTAMP(6)   NOT NULL,
+    updated_at               TIMESTAMP(6),
+    completed_at             TIMESTAMP(6),
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number),
+    CONSTRAINT uk_orders_payment_intent UNIQUE (stripe_payment_intent_id),
+    CONSTRAINT fk_orders_buyer FOREIGN KEY (buyer_id) REFERENCES users (id),
+    CONSTRAINT ck_orders_status CHECK (order_status IN ('PENDING_PAYMENT', 'PAYMENT_COMPLETED', 'SELLER_NOTIFIED',
+        'MEETING_ARRANGED', 'OTP_GENERATED', 'COMPLETED', 'CANCELLED', 'DISPUTED'))
+);
+
+CREATE TABLE order_item (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id          BIGINT,
+    product_id        BIGINT,
+    seller_id         BIGINT,
+    quantity          INTEGER        NOT NULL,
+    price_at_purchase NUMERIC(38, 2) NOT NULL,
+    sub_total         NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id),
+    CONSTRAINT fk_order_item_seller FOREIGN KEY (seller_id) REFERENCES users (id)
+);
@@ -0,0 +1,10 @@
+-- Orders, order items and cart items move from IDENTITY to pooled sequences
+-- (allocationSize = 50 in the entities) so Hibernate can batch their inserts.
+-- Each sequence starts past the ids already handed out by the identity columns.
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_item_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_item_seq INCREMENT BY 50;
+
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 50);
+SELECT setval('order_item_seq', COALESCE((SELECT MAX(id) FROM order_item), 0) + 50);
+SELECT setval('cart_item_seq', COALESCE((SELECT MAX(id) FROM cart_item), 0) + 50);
@@ -0,0 +1,4 @@
+-- Meeting location and notes are only known once the seller arranges the meeting,
+-- well after the order row is inserted at checkout.
+ALTER TABLE orders ALTER COLUMN meeting_location DROP NOT NULL;
+ALTER TABLE orders ALTER COLUMN meeting_notes DROP NOT NULL;
@@ -0,0 +1,41 @@
+-- Indexes for the predicates the repositories actually run.
+-- Listing queries always filter is_available = true, so those indexes are
+-- partial: sold-out and hidden products never take up space in them.
+
+-- Catalogue: all available products, sorted by title (default) or newest first
+CREATE INDEX IF NOT EXISTS idx_product_available_title
+    ON product (title) WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_product_available_created
+    ON product (created_at DESC) WHERE is_available;
+
+-- Category pages and category + price range / condition filters
+CREATE INDEX IF NOT EXISTS idx_product_available_category_created
+    ON product (category_id, created_at DESC) WHERE is_available;
+
+-- Price range filter
+CREATE INDEX IF NOT EXISTS idx_product_available_price
+    ON product (price) WHERE is_available;
+
+-- "My products" and the seller side of every listing
+CREATE INDEX IF NOT EXISTS idx_product_seller
+    ON product (seller_id);
+
+-- Image gallery per product
+CREATE INDEX IF NOT EXISTS idx_product_image_product
+    ON product_image (product_id);
+
+-- Cart lookups and "is this product already in the cart"
+CREATE INDEX IF NOT EXISTS idx_cart_item_cart_product
+    ON cart_item (cart_id, product_id);
+
+-- Buyer order history
+CREATE INDEX IF NOT EXISTS idx_orders_buyer
+    ON orders (buyer_id);
+
+-- Seller sales pages and stats: seller first, order id to join back to orders
+CREATE INDEX IF NOT EXISTS idx_order_item_seller_order
+    ON order_item (seller_id, order_id);
+
+-- Items of one order (order page, stats on completion)
+CREATE INDEX IF NOT EXISTS idx_order_item_order
+    ON order_item (order_id);
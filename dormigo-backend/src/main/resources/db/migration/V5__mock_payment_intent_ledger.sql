@@ -0,0 +1,33 @@
+-- Ledger for MockPaymentService, the local stand-in for Stripe.
+-- Intents used to live in a HashMap and were lost on restart; every state
+-- change is now written here before it is acknowledged.
+CREATE TABLE mock_payment_intent (
+    id           VARCHAR(64)    PRIMARY KEY,
+    order_number VARCHAR(255)   NOT NULL,
+    amount       NUMERIC(10, 2) NOT NULL,
+    status       VARCHAR(32)    NOT NULL,
+    captured     BOOLEAN        NOT NULL,
+    version      BIGINT         NOT NULL,
+    created_at   TIMESTAMP(6)   NOT NULL,
+    updated_at   TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT ck_mock_payment_intent_status CHECK (status IN ('requires_payment_method', 'requires_capture',
+        'succeeded', 'canceled'))
+);
+
+-- Intents of orders placed before the ledger existed, in the state their order implies
+INSERT INTO mock_payment_intent (id, order_number, amount, status, captured, version, created_at, updated_at)
+SELECT o.stripe_payment_intent_id,
+       o.order_number,
+       o.total_amount,
+       CASE
+           WHEN o.order_status = 'PENDING_PAYMENT' THEN 'requires_payment_method'
+           WHEN o.order_status IN ('COMPLETED', 'DISPUTED') THEN 'succeeded'
+           WHEN o.order_status = 'CANCELLED' THEN 'canceled'
+           ELSE 'requires_capture'
+       END,
+       o.order_status IN ('COMPLETED', 'DISPUTED'),
+       0,
+       o.created_at,
+       COALESCE(o.updated_at, o.created_at)
+FROM orders o
+ON CONFLICT (id) DO NOTHING;
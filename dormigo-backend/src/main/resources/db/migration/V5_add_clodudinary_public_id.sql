@@ -1,2 +0,0 @@
-ALTER TABLE product_image
-    ADD COLUMN cloudinary_public_id VARCHAR(255);
\ No newline at end of file
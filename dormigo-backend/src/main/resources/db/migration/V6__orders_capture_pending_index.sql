@@ -0,0 +1,4 @@
+-- Payment capture queue: completed orders wait here until their capture goes
+-- through. Partial, so the index only ever holds the (few) pending ones.
+CREATE INDEX IF NOT EXISTS idx_orders_capture_pending
+    ON orders (updated_at) WHERE stripe_payment_status = 'capture_pending';
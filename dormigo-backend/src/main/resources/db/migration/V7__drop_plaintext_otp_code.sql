@@ -0,0 +1,4 @@
+-- Handoff OTPs now live in Redis as an HMAC (OtpService); the plaintext column goes.
+-- Older databases built by ddl-auto may still carry an index on it.
+DROP INDEX IF EXISTS idx_order_otp_code;
+ALTER TABLE orders DROP COLUMN IF EXISTS otp_code;
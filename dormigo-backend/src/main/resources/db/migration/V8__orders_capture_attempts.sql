@@ -0,0 +1,2 @@
+-- Failed capture drains per order, so max-attempts holds across restarts and nodes.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS capture_attempts INTEGER NOT NULL DEFAULT 0;
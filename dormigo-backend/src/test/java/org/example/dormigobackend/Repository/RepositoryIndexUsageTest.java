@@ -0,0 +1,279 @@
+package org.example.dormigobackend.Repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.dormigobackend.Enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Runs the repository queries against a Flyway-built schema filled with a few
+ * thousand rows, captures the SQL Hibernate actually sent and EXPLAINs it with
+ * the same bind values. Each query must be planned through the index V4 added
+ * for its predicate.
+ *
+ * Not covered: the keyword searches (leading-wildcard LIKE can't use a b-tree)
+ * and the condition-only filter, which reads a fifth of the available rows.
+ * */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryIndexUsageTest.EmbeddedDatabase.class)
+class RepositoryIndexUsageTest {
+
+    private static boolean seeded;
+
+    @Autowired private EmbeddedPostgres postgres;
+    @Autowired private CapturedQueries capturedQueries;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductImageRepository productImageRepository;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private CartItemRepository cartItemRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+
+    @BeforeEach
+    void seedOnce() throws Exception {
+        if (seeded) {
+            return;
+        }
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (email, password, first_name, last_name, role, is_active, created_at, updated_at)
+                    SELECT 'user' || g || '@dormigo.test', 'x', 'User', 'No ' || g, 'STUDENT', true, now(), now()
+                    FROM generate_series(1, 400) g;
+
+                    INSERT INTO category (name, description, create_at, updated_at)
+                    SELECT 'Category ' || g, 'Category ' || g, now(), now() FROM generate_series(1, 100) g;
+
+                    INSERT INTO product (title, description, price, quantity, product_condition, category_id,
+                                         seller_id, created_at, updated_at, is_available)
+                    SELECT 'Product ' || g, 'Description ' || g, (g % 1000) + 0.99, 1 + g % 5,
+                           (ARRAY['LIKE_NEW', 'NEW', 'GOOD', 'FAIR', 'POOR'])[1 + g % 5],
+                           1 + g % 100, 1 + g % 200, now() - g * interval '1 minute', now(), g % 10 <> 0
+                    FROM generate_series(1, 20000) g;
+
+                    INSERT INTO product_image (image_url, file_name, product_id, is_primary, uploaded_at)
+                    SELECT 'https://img.test/' || g || '.jpg', g || '.jpg', g, true, now()
+                    FROM generate_series(1, 20000) g;
+
+                    INSERT INTO cart (user_id, created_at) SELECT 200 + g, now() FROM generate_series(1, 200) g;
+
+                    INSERT INTO cart_item (cart_id, product_id, quantity, created_at)
+                    SELECT 1 + g % 200, 1 + (g * 7) % 20000, 1, now() FROM generate_series(1, 2000) g;
+
+                    INSERT INTO orders (order_number, buyer_id, total_amount, stripe_payment_intent_id,
+                                        stripe_payment_status, order_status, created_at)
+                    SELECT 'ORD-' || g, 201 + g % 200, 10, 'pi_' || g, 'succeeded',
+                           (ARRAY['PENDING_PAYMENT', 'PAYMENT_COMPLETED', 'SELLER_NOTIFIED', 'MEETING_ARRANGED',
+                                  'OTP_GENERATED', 'COMPLETED', 'CANCELLED', 'DISPUTED'])[1 + g % 8],
+                           now() - g * interval '1 minute'
+                    FROM generate_series(1, 10000) g;
+
+                    INSERT INTO order_item (order_id, product_id, seller_id, quantity, price_at_purchase, sub_total)
+                    SELECT 1 + g % 10000, 1 + g % 20000, 1 + g % 200, 1, 10, 10
+                    FROM generate_series(1, 20000) g;
+
+                    ANALYZE;
+                    """);
+        }
+        seeded = true;
+    }
+
+    @Test
+    void availableProductsSortedByTitle() throws Exception {
+        assertPlannedWith("idx_product_available_title",
+                () -> productRepository.findByIsAvailableTrue(PageRequest.of(0, 20, Sort.by("title"))));
+    }
+
+    @Test
+    void availableProductsNewestFirst() throws Exception {
+        assertPlannedWith("idx_product_available_created",
+                () -> productRepository.findByIsAvailableTrue(PageRequest.of(0, 20, Sort.by("createdAt").descending())));
+    }
+
+    @Test
+    void availableProductsInCategory() throws Exception {
+        assertPlannedWith("idx_product_available_category_created",
+                () -> productRepository.findByCategoryIdAndIsAvailableTrue(3L,
+                        PageRequest.of(0, 20, Sort.by("createdAt").descending())));
+    }
+
+    @Test
+    void availableProductsInCategoryAndPriceRange() throws Exception {
+        assertPlannedWith("idx_product_available_category_created",
+                () -> productRepository.findByCategoryAndPriceRange(3L, new BigDecimal("10"), new BigDecimal("900"),
+                        PageRequest.of(0, 20, Sort.by("createdAt").descending())));
+    }
+
+    @Test
+    void availableProductsInPriceRange() throws Exception {
+        assertPlannedWith("idx_product_available_price",
+                () -> productRepository.findByPriceBetweenAndIsAvailableTrue(new BigDecimal("10"), new BigDecimal("12"),
+                        PageRequest.of(0, 20, Sort.by("price"))));
+    }
+
+    @Test
+    void productsOfSeller() throws Exception {
+        assertPlannedWith("idx_product_seller", () -> productRepository.findBySellerId(17L));
+    }
+
+    @Test
+    void imagesOfProduct() throws Exception {
+        assertPlannedWith("idx_product_image_product", () -> productImageRepository.findByProductId(1234L));
+    }
+
+    @Test
+    void cartWithItems() throws Exception {
+        assertPlannedWith("idx_cart_item_cart_product", () -> cartRepository.findByUserIdWithItems(250L));
+    }
+
+    @Test
+    void cartItemByCartAndProduct() throws Exception {
+        assertPlannedWith("idx_cart_item_cart_product", () -> cartItemRepository.findByCartIdAndProductId(12L, 85L));
+    }
+
+    @Test
+    void ordersOfBuyer() throws Exception {
+        assertPlannedWith("idx_orders_buyer", () -> orderRepository.findSummariesByBuyerId(250L, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void ordersOfSeller() throws Exception {
+        assertPlannedWith("idx_order_item_seller_order", () -> orderRepository.findSummariesBySellerId(17L, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void linesOfOrderPage() throws Exception {
+        assertPlannedWith("idx_order_item_order",
+                () -> orderItemRepository.findLinesByOrderIds(List.of(4321L, 4322L, 4323L)));
+    }
+
+    @Test
+    void salesOfOrder() throws Exception {
+        assertPlannedWith("idx_order_item_order", () -> orderItemRepository.findSalesByOrderId(4321L));
+    }
+
+    @Test
+    void sellerStatusCounts() throws Exception {
+        assertPlannedWith("idx_order_item_seller_order", () -> orderItemRepository.countOrdersByStatusForSeller(17L));
+    }
+
+    @Test
+    void sellerProductSales() throws Exception {
+        assertPlannedWith("idx_order_item_seller_order", () -> orderItemRepository.sumProductSalesForSeller(17L,
+                EnumSet.of(OrderStatus.COMPLETED, OrderStatus.DISPUTED)));
+    }
+
+    @Test
+    void recentOrdersOfSeller() throws Exception {
+        assertPlannedWith("idx_order_item_seller_order",
+                () -> orderItemRepository.findRecentOrdersForSeller(17L, LocalDateTime.now().minusMinutes(5)));
+    }
+
+    /* EXPLAINs the first statement the call sends (the page content, not its count query) */
+    private void assertPlannedWith(String index, Runnable repositoryCall) throws Exception {
+        capturedQueries.clear();
+        repositoryCall.run();
+        assertThat(capturedQueries.queries()).as("statements sent").isNotEmpty();
+
+        CapturedQuery query = capturedQueries.queries().getFirst();
+        String plan = explain(query);
+        assertThat(plan).as("plan for %s", query.sql()).contains(index);
+    }
+
+    private String explain(CapturedQuery query) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (ParameterSetOperation parameter : query.parameters()) {
+                parameter.getMethod().invoke(statement, parameter.getArgs());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    record CapturedQuery(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    static class CapturedQueries implements QueryExecutionListener {
+
+        private final List<CapturedQuery> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                        ? List.of()
+                        : new ArrayList<>(queryInfo.getParametersList().getFirst());
+                queries.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+            }
+        }
+
+        List<CapturedQuery> queries() {
+            return queries;
+        }
+
+        void clear() {
+            queries.clear();
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class EmbeddedDatabase {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        CapturedQueries capturedQueries() {
+            return new CapturedQueries();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres, CapturedQueries capturedQueries) {
+            return ProxyDataSourceBuilder.create(postgres.getPostgresDatabase())
+                    .name("explain")
+                    .listener(capturedQueries)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.dormigobackend.cache;
+
+import org.example.dormigobackend.dto.response.CategoryResponse;
+import org.example.dormigobackend.dto.response.PageResponse;
+import org.example.dormigobackend.dto.response.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Round trips the Smile + LZ4 wire format: header layout, the compressed and
+ * uncompressed paths, envelopes, the JSON fallback, and corrupt LZ4 entries,
+ * which must fail as a SerializationException rather than read past the buffer.
+ * */
+class CacheValueSerializerTest {
+
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    private final CacheValueSerializer serializer =
+            new CacheValueSerializer(new GenericJackson2JsonRedisSerializer(), COMPRESS_THRESHOLD);
+
+    @Test
+    void largePageIsCompressedAndReadsBack() {
+        PageResponse<ProductResponse> page = page(50);
+
+        byte[] bytes = serializer.serialize(page);
+
+        assertThat(bytes[0]).isEqualTo((byte) 0xB1);
+        assertThat(bytes[1]).isEqualTo((byte) 1);
+        assertThat(bytes[2] & 1).as("LZ4 flag").isEqualTo(1);
+        assertThat(ByteBuffer.wrap(bytes, 3, 2).getShort()).as("type id").isEqualTo((short) 2);
+        assertThat(ByteBuffer.wrap(bytes, 5, 4).getInt()).as("uncompressed length").isGreaterThan(bytes.length);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(page);
+    }
+
+    @Test
+    void smallValueIsStoredUncompressed() {
+        ProductResponse product = product(1);
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertThat(bytes.length).isLessThan(COMPRESS_THRESHOLD);
+        assertThat(bytes[2] & 1).as("LZ4 flag").isZero();
+        assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+    }
+
+    @Test
+    void envelopeKeepsItsTimingsThroughCompression() {
+        CacheEnvelope envelope = new CacheEnvelope(page(50), 37, 1_700_000_000_000L);
+
+        byte[] bytes = serializer.serialize(envelope);
+
+        assertThat(bytes[2] & 0b11).as("LZ4 and envelope flags").isEqualTo(0b11);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(envelope);
+    }
+
+    @Test
+    void listOfCategoriesReadsBack() {
+        List<CategoryResponse> categories = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> CategoryResponse.builder().id((long) i).name("Category " + i).build())
+                .toList();
+
+        assertThat(serializer.deserialize(serializer.serialize(categories))).isEqualTo(categories);
+    }
+
+    @Test
+    void unregisteredTypeGoesThroughJsonFallback() {
+        Map<String, Object> value = new HashMap<>(Map.of("views", 12));
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(bytes[0]).isNotEqualTo((byte) 0xB1);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void truncatedLz4PayloadIsRejected() {
+        byte[] bytes = serializer.serialize(page(50));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void oversizedUncompressedLengthIsRejected() {
+        byte[] bytes = serializer.serialize(page(50));
+        ByteBuffer.wrap(bytes, 5, 4).putInt(Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    private static PageResponse<ProductResponse> page(int size) {
+        return PageResponse.<ProductResponse>builder()
+                .content(IntStream.rangeClosed(1, size).mapToObj(CacheValueSerializerTest::product).toList())
+                .pageNumber(0)
+                .pageSize(size)
+                .totalElements(size * 4L)
+                .totalPages(4)
+                .first(true)
+                .last(false)
+                .empty(false)
+                .build();
+    }
+
+    private static ProductResponse product(int id) {
+        return ProductResponse.builder()
+                .id((long) id)
+                .title("Desk lamp " + id)
+                .description("Barely used desk lamp, warm white bulb included")
+                .price(new BigDecimal("12.50"))
+                .categoryId(3L)
+                .categoryName("Furniture")
+                .quantity(1)
+                .condition("GOOD")
+                .isAvailable(true)
+                .seller(ProductResponse.SellerInfo.builder()
+                        .id(42L).firstName("Ada").lastName("Student").email("ada@dormigo.test").build())
+                .createdAt(LocalDateTime.of(2026, 3, 14, 10, 15))
+                .productImages(List.of("https://img.test/" + id + ".jpg"))
+                .primaryImage("https://img.test/" + id + ".jpg")
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.dormigobackend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dormigobackend.config.RedisConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Two "nodes" (cache managers) share one embedded Redis. A burst of concurrent
+ * reads for a missing or expired key must reach the loader exactly once.
+ * */
+class CoalescingRedisCacheTest {
+
+    private static final Duration LOAD_TIME = Duration.ofMillis(300);
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private final List<CoalescingRedisCacheManager> managers = new ArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(32);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        callers.shutdownNow();
+        for (CoalescingRedisCacheManager manager : managers) {
+            manager.destroy();
+        }
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void concurrentMissesAcrossNodesLoadOnce() throws Exception {
+        CoalescingRedisCache nodeA = cache(Duration.ofMinutes(30), 0);
+        CoalescingRedisCache nodeB = cache(Duration.ofMinutes(30), 0);
+
+        List<String> results = burst(16, nodeA, nodeB);
+
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(32).containsOnly("page-0");
+    }
+
+    @Test
+    void expiryCausesExactlyOneReload() throws Exception {
+        CoalescingRedisCache nodeA = cache(Duration.ofSeconds(1), 0);
+        CoalescingRedisCache nodeB = cache(Duration.ofSeconds(1), 0);
+
+        burst(16, nodeA, nodeB);
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(1500);
+        burst(16, nodeA, nodeB);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void hotKeyIsRefreshedInTheBackgroundBeforeItExpires() throws Exception {
+        // min recompute longer than the TTL: every hit is "close to expiry"
+        CoalescingRedisCache nodeA = cache(Duration.ofSeconds(10), 30);
+        CoalescingRedisCache nodeB = cache(Duration.ofSeconds(10), 30);
+        nodeA.get("page:0", this::load);
+        assertThat(loads).hasValue(1);
+
+        long start = System.nanoTime();
+        List<String> results = burst(16, nodeA, nodeB);
+        Duration burstTime = Duration.ofNanos(System.nanoTime() - start);
+
+        // Hits kept being served from the cache while one refresh ran behind them
+        assertThat(results).hasSize(32).containsOnly("page-0");
+        assertThat(burstTime).isLessThan(LOAD_TIME);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void clearIsRepeatedAfterTheReplicaLagWindow() throws Exception {
+        CoalescingRedisCache cache = cache(Duration.ofMinutes(30), 0, Duration.ofMillis(500));
+        cache.clear();
+        // Reloaded from a replica that hadn't caught up yet
+        cache.put("page:0", "stale");
+
+        Thread.sleep(200);
+        assertThat(cache.get("page:0", String.class)).isEqualTo("stale");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.get("page:0", String.class) != null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache.get("page:0", String.class)).isNull();
+    }
+
+    private List<String> burst(int callersPerNode, CoalescingRedisCache... nodes) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (CoalescingRedisCache node : nodes) {
+            for (int i = 0; i < callersPerNode; i++) {
+                futures.add(callers.submit(() -> {
+                    go.await();
+                    return node.get("page:0", this::load);
+                }));
+            }
+        }
+        go.countDown();
+
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private String load() throws InterruptedException {
+        loads.incrementAndGet();
+        Thread.sleep(LOAD_TIME);
+        return "page-0";
+    }
+
+    private CoalescingRedisCache cache(Duration ttl, long minRecomputeSeconds) {
+        return cache(ttl, minRecomputeSeconds, Duration.ZERO);
+    }
+
+    private CoalescingRedisCache cache(Duration ttl, long minRecomputeSeconds, Duration clearAgainAfter) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new GenericJackson2JsonRedisSerializer(new RedisConfig().redisObjectMapper())))
+                .disableCachingNullValues();
+        CoalescingSettings settings = new CoalescingSettings(
+                Duration.ofSeconds(5),
+                minRecomputeSeconds > 0 ? 1.0 : 0,
+                Duration.ofSeconds(minRecomputeSeconds),
+                clearAgainAfter);
+
+        CoalescingRedisCacheManager manager = new CoalescingRedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                configuration,
+                Map.of(),
+                redis,
+                settings,
+                new SimpleMeterRegistry());
+        manager.afterPropertiesSet();
+        managers.add(manager);
+        return (CoalescingRedisCache) manager.getCache("products");
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.dormigobackend.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.dormigobackend.Entity.Category;
+import org.example.dormigobackend.service.CategoryService;
+import org.example.dormigobackend.service.EntityCacheEvictor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * The primary and one replica pool (same embedded instance) built by ReplicaDataSourceConfig,
+ * under the application's Hibernate settings (connections released after each transaction).
+ * Which pool served a call is read from Hikari's per-pool connection usage timer.
+ * */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CategoryService.class, EntityCacheEvictor.class, ReplicaRoutingDataSourceTest.Replicas.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-0";
+
+    @Autowired private CategoryService categoryService;
+    @Autowired private ReplicaSet replicaSet;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void putReplicaInRotation() {
+        replicaSet.checkLag();
+    }
+
+    @Test
+    void readOnlyServiceCallUsesTheReplica() {
+        categoryService.createCategory(category());
+        long primary = connectionsUsed(PRIMARY);
+        long replica = connectionsUsed(REPLICA);
+
+        assertThat(categoryService.findAllCategories()).isNotEmpty();
+
+        assertThat(connectionsUsed(REPLICA)).isEqualTo(replica + 1);
+        assertThat(connectionsUsed(PRIMARY)).isEqualTo(primary);
+    }
+
+    @Test
+    void writeUsesThePrimary() {
+        long primary = connectionsUsed(PRIMARY);
+        long replica = connectionsUsed(REPLICA);
+
+        categoryService.createCategory(category());
+
+        assertThat(connectionsUsed(PRIMARY)).isGreaterThan(primary);
+        assertThat(connectionsUsed(REPLICA)).isEqualTo(replica);
+    }
+
+    private long connectionsUsed(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+
+    private static Category category() {
+        // category.name is varchar(20)
+        return Category.builder()
+                .name("Lamps " + UUID.randomUUID().toString().substring(0, 8))
+                .description("Desk and floor lamps")
+                .build();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Replicas {
+
+        private final ReplicaDataSourceConfig config = new ReplicaDataSourceConfig();
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        HikariConfig hikariSettings() {
+            return config.hikariSettings();
+        }
+
+        @Bean(destroyMethod = "close")
+        ReplicaSet replicaSet(EmbeddedPostgres postgres, HikariConfig hikariSettings, MeterRegistry meterRegistry) {
+            return config.replicaSet(hikariSettings, List.of(postgres.getJdbcUrl("postgres", "postgres")),
+                    "postgres", "postgres", 2, 2, meterRegistry);
+        }
+
+        @Bean(destroyMethod = "close")
+        DataSource dataSource(EmbeddedPostgres postgres, ReplicaSet replicaSet, HikariConfig hikariSettings,
+                              MeterRegistry meterRegistry) {
+            return config.dataSource(replicaSet, hikariSettings, postgres.getJdbcUrl("postgres", "postgres"),
+                    "postgres", "postgres", meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.dormigobackend.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dormigobackend.handler.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * The auth limit against an embedded Redis: the bucket belongs to the connection's
+ * address, so rotating X-Forwarded-For (or any other forwarding header) buys nothing.
+ * */
+class RateLimitInterceptorTest {
+
+    private static final int CAPACITY = 3;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisRateLimiter rateLimiter = new RedisRateLimiter(redis, new SimpleMeterRegistry(), true);
+        RateLimitRule auth = new RateLimitRule("auth", CAPACITY, 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LoginController())
+                .addInterceptors(new RateLimitInterceptor(rateLimiter, auth, Set.of()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void rotatingForwardedForStillRunsOutOfTokens() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            mockMvc.perform(post("/api/auth/login").header("X-Forwarded-For", "203.0.113." + i))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                        .header("X-Forwarded-For", "198.51.100.7")
+                        .header("X-Real-IP", "198.51.100.8")
+                        .header("Proxy-Client-IP", "198.51.100.9"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void otherAddressHasItsOwnBucket() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            mockMvc.perform(post("/api/auth/login")).andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/auth/login")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(post("/api/auth/login").with(request -> {
+                    request.setRemoteAddr("192.0.2.44");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+    }
+
+    @RestController
+    static class LoginController {
+
+        @PostMapping("/api/auth/login")
+        String login() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.dormigobackend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/*
+ * Which requests skip token parsing: public endpoints do, unless the page asks
+ * for a personalized response (?personalized=true), and everything else never does.
+ * */
+class JwtAuthenticationFilterTest {
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            mock(JwtTokenProvider.class), mock(UserDetailsService.class), mock(TokenRevocationService.class));
+
+    @Test
+    void publicEndpointSkipsAuthentication() {
+        assertThat(filter.shouldNotFilter(request("GET", "/api/products/public/search"))).isTrue();
+        assertThat(filter.shouldNotFilter(request("POST", "/api/auth/login"))).isTrue();
+    }
+
+    @Test
+    void personalizedPublicRequestIsAuthenticated() {
+        MockHttpServletRequest request = request("GET", "/api/products/public/search");
+        request.setParameter("personalized", "true");
+
+        assertThat(filter.shouldNotFilter(request)).isFalse();
+    }
+
+    @Test
+    void personalizedMustBeTrueToCount() {
+        MockHttpServletRequest request = request("GET", "/api/products/public/search");
+        request.setParameter("personalized", "yes");
+
+        assertThat(filter.shouldNotFilter(request)).isTrue();
+    }
+
+    @Test
+    void protectedEndpointIsAlwaysAuthenticated() {
+        assertThat(filter.shouldNotFilter(request("GET", "/api/orders"))).isFalse();
+        // Public for reads only
+        assertThat(filter.shouldNotFilter(request("POST", "/api/products/public/search"))).isFalse();
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.dormigobackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Lookups against a small trie with every kind of segment: literal, "*", trailing "**",
+ * and patterns limited to some methods.
+ * */
+class PathTrieTest {
+
+    private static final Set<String> READS = Set.of("GET", "HEAD");
+
+    private final PathTrie trie = PathTrie.builder()
+            .add("/api/auth/**", Set.of())
+            .add("/api/products/*/images", READS)
+            .add("/api/products/*/images/primary", READS)
+            .add("/api/products/featured", Set.of("POST"))
+            .add("/error", Set.of())
+            .build();
+
+    @Test
+    void exactPathMatches() {
+        assertThat(trie.matches("GET", "/error")).isTrue();
+        assertThat(trie.matches("POST", "/api/products/featured")).isTrue();
+    }
+
+    @Test
+    void wildcardMatchesExactlyOneSegment() {
+        assertThat(trie.matches("GET", "/api/products/42/images")).isTrue();
+        assertThat(trie.matches("GET", "/api/products/42/images/primary")).isTrue();
+
+        assertThat(trie.matches("GET", "/api/products//images")).isFalse();
+        assertThat(trie.matches("GET", "/api/products/42/7/images")).isFalse();
+        assertThat(trie.matches("GET", "/api/products/images")).isFalse();
+    }
+
+    @Test
+    void literalSegmentFallsBackToTheWildcard() {
+        // "featured" is a literal child with other methods; GET still matches through "*"
+        assertThat(trie.matches("GET", "/api/products/featured/images")).isTrue();
+        assertThat(trie.matches("GET", "/api/products/featured")).isFalse();
+    }
+
+    @Test
+    void doubleWildcardMatchesEverythingBelow() {
+        assertThat(trie.matches("POST", "/api/auth")).isTrue();
+        assertThat(trie.matches("POST", "/api/auth/login")).isTrue();
+        assertThat(trie.matches("DELETE", "/api/auth/sessions/abc/revoke")).isTrue();
+    }
+
+    @Test
+    void trailingSlashIsTheSameEndpoint() {
+        assertThat(trie.matches("GET", "/api/products/42/images/")).isTrue();
+        assertThat(trie.matches("GET", "/error/")).isTrue();
+        assertThat(trie.matches("GET", "/api/products/42/images//")).isFalse();
+    }
+
+    @Test
+    void methodsAreRespected() {
+        assertThat(trie.matches("POST", "/api/products/42/images")).isFalse();
+        assertThat(trie.matches("HEAD", "/api/products/42/images")).isTrue();
+    }
+
+    @Test
+    void nonMatchingPathsAreRejected() {
+        assertThat(trie.matches("GET", "/")).isFalse();
+        assertThat(trie.matches("GET", "/api")).isFalse();
+        assertThat(trie.matches("GET", "/api/products")).isFalse();
+        assertThat(trie.matches("GET", "/api/products/42/images/secondary")).isFalse();
+        assertThat(trie.matches("GET", "/api/authx/login")).isFalse();
+        assertThat(trie.matches("GET", "/errors")).isFalse();
+    }
+
+    @Test
+    void unsupportedPatternsAreRefused() {
+        assertThatThrownBy(() -> PathTrie.builder().add("/api/**/images", Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathTrie.builder().add("/api//images", Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
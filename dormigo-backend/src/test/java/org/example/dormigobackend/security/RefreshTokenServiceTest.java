@@ -0,0 +1,111 @@
+package org.example.dormigobackend.security;
+
+import org.example.dormigobackend.exception.UnauthorizedException;
+import org.example.dormigobackend.security.RefreshTokenService.IssuedToken;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Rotation against an embedded Redis with a 300 ms reuse grace: a token spent
+ * twice inside it is refused (two tabs racing), after it the session ends.
+ * */
+class RefreshTokenServiceTest {
+
+    private static final long GRACE_MILLIS = 300;
+    private static final String EMAIL = "ada@dormigo.test";
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final RefreshTokenService refreshTokenService =
+            new RefreshTokenService(redis, tokenRevocationService, 60_000, GRACE_MILLIS);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void rotationHandsOutTheSessionsNextToken() {
+        IssuedToken login = refreshTokenService.startSession(EMAIL);
+
+        IssuedToken next = refreshTokenService.rotate(login.refreshToken());
+
+        assertThat(next.sessionId()).isEqualTo(login.sessionId());
+        assertThat(next.email()).isEqualTo(EMAIL);
+        assertThat(next.refreshToken()).isNotEqualTo(login.refreshToken());
+    }
+
+    @Test
+    void tokenSpentWithinTheGraceIsRefusedButTheSessionStays() {
+        IssuedToken login = refreshTokenService.startSession(EMAIL);
+        IssuedToken winner = refreshTokenService.rotate(login.refreshToken());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(login.refreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(tokenRevocationService, never()).revokeSession(login.sessionId());
+        assertThat(refreshTokenService.rotate(winner.refreshToken()).sessionId()).isEqualTo(login.sessionId());
+    }
+
+    @Test
+    void tokenReusedAfterTheGraceEndsTheSession() throws InterruptedException {
+        IssuedToken login = refreshTokenService.startSession(EMAIL);
+        IssuedToken next = refreshTokenService.rotate(login.refreshToken());
+        Thread.sleep(GRACE_MILLIS + 200);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(login.refreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(tokenRevocationService).revokeSession(login.sessionId());
+        assertThatThrownBy(() -> refreshTokenService.rotate(next.refreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void unknownTokenIsInvalid() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("nosession.notatoken"))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+}
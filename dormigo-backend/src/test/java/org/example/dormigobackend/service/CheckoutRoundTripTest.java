@@ -0,0 +1,128 @@
+package org.example.dormigobackend.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.dormigobackend.Entity.*;
+import org.example.dormigobackend.Enums.ProductCondition;
+import org.example.dormigobackend.Enums.Role;
+import org.example.dormigobackend.Repository.CartRepository;
+import org.example.dormigobackend.Repository.CategoryRepository;
+import org.example.dormigobackend.Repository.ProductRepository;
+import org.example.dormigobackend.Repository.UserRepository;
+import org.example.dormigobackend.config.JpaAuditingConfig;
+import org.example.dormigobackend.dto.request.CreateOrderRequest;
+import org.example.dormigobackend.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/*
+ * Checkout must cost the same number of JDBC round trips whatever the cart size:
+ * cart + buyer lookups, then one batched statement per table (order, order
+ * items, stock updates, cart item deletes). Ids come from pooled sequences, so
+ * nextval is only paid once per block of 50 and is warmed up before measuring.
+ * */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, JpaAuditingConfig.class, CheckoutRoundTripTest.EmbeddedDatabase.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutRoundTripTest {
+
+    private static final int MAX_ROUND_TRIPS = 10;
+
+    @Autowired private OrderService orderService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CartRepository cartRepository;
+
+    @MockitoBean private MockPaymentService mockPaymentService;
+    @MockitoBean private PaymentCaptureQueue paymentCaptureQueue;
+    @MockitoBean private OtpService otpService;
+    @MockitoBean private EmailService emailService;
+
+    @Test
+    void checkoutRoundTripsDoNotGrowWithCartSize() {
+        when(mockPaymentService.createPaymentIntent(any(), any()))
+                .thenAnswer(invocation -> "pi_" + UUID.randomUUID() + "_secret_test");
+
+        // the first checkout draws each pooled sequence's block; later ones allocate from it
+        checkoutRoundTrips(1);
+        int single = checkoutRoundTrips(1);
+        int tenItems = checkoutRoundTrips(10);
+
+        assertThat(tenItems).isEqualTo(single);
+        assertThat(tenItems).isLessThanOrEqualTo(MAX_ROUND_TRIPS);
+    }
+
+    private int checkoutRoundTrips(int itemCount) {
+        User seller = userRepository.save(user("seller"));
+        User buyer = userRepository.save(user("buyer"));
+        Category category = categoryRepository.save(Category.builder().name("Books").description("Books").build());
+
+        Cart cart = Cart.builder().user(buyer).build();
+        for (int i = 0; i < itemCount; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .title("Textbook " + i)
+                    .description("Second hand")
+                    .price(new BigDecimal("12.50"))
+                    .quantity(5)
+                    .productCondition(ProductCondition.GOOD)
+                    .category(category)
+                    .seller(seller)
+                    .isAvailable(true)
+                    .build());
+            cart.addItem(CartItems.builder().product(product).quantity(1).build());
+        }
+        cartRepository.save(cart);
+
+        QueryCountHolder.clear();
+        orderService.createOrder(CreateOrderRequest.builder().build(), UserPrincipal.create(buyer));
+        return (int) QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    private static User user(String prefix) {
+        return User.builder()
+                .email(prefix + "-" + UUID.randomUUID() + "@dormigo.test")
+                .password("x")
+                .firstName(prefix)
+                .lastName("test")
+                .role(Role.STUDENT)
+                .isActive(true)
+                .build();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class EmbeddedDatabase {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return ProxyDataSourceBuilder.create(postgres.getPostgresDatabase())
+                    .name("checkout")
+                    .countQuery()
+                    .build();
+        }
+    }
+}
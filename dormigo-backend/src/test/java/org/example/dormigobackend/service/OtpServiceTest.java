@@ -0,0 +1,173 @@
+package org.example.dormigobackend.service;
+
+import org.example.dormigobackend.service.OtpService.Outcome;
+import org.example.dormigobackend.service.OtpService.Verification;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Runs the issue/verify scripts against an embedded Redis with small limits:
+ * 3 wrong guesses burn a code, 5 across re-issued codes lock the order.
+ * A verified code is claimed until the caller consumes or releases it.
+ * */
+class OtpServiceTest {
+
+    private static final String SECRET = "otp-service-test-secret-0123456789abcdef";
+    private static final long ORDER = 7L;
+    private static final long SELLER = 21L;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private final OtpService otpService = new OtpService(redis, SECRET, 10, 60, 3, 5);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void rightCodeVerifiesOnce() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.VERIFIED);
+        // Claimed while the completion runs
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.NO_CODE);
+
+        otpService.consume(ORDER);
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.NO_CODE);
+        assertThat(redis.keys("dormigo::otp*")).isEmpty();
+    }
+
+    @Test
+    void releasedCodeCanBeEnteredAgain() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.VERIFIED);
+
+        otpService.release(ORDER);
+
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.VERIFIED);
+    }
+
+    @Test
+    void codeIsStoredOnlyAsHmac() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+
+        Object stored = redis.opsForHash().get("dormigo::otp:{" + ORDER + "}", "code");
+        assertThat(stored).isNotNull().asString().doesNotContain(code).hasSize(64);
+    }
+
+    @Test
+    void wrongCodeCountsDown() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+
+        Verification first = otpService.verify(ORDER, SELLER, wrong(code));
+        Verification second = otpService.verify(ORDER, SELLER, wrong(code));
+
+        assertThat(first).isEqualTo(new Verification(Outcome.WRONG_CODE, 2));
+        assertThat(second).isEqualTo(new Verification(Outcome.WRONG_CODE, 1));
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.VERIFIED);
+    }
+
+    @Test
+    void codeIsBurnedAfterMaxAttempts() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+        otpService.verify(ORDER, SELLER, wrong(code));
+        otpService.verify(ORDER, SELLER, wrong(code));
+
+        assertThat(otpService.verify(ORDER, SELLER, wrong(code)).outcome()).isEqualTo(Outcome.LOCKED);
+        // Even the right code is refused now
+        assertThat(otpService.verify(ORDER, SELLER, code).outcome()).isEqualTo(Outcome.LOCKED);
+
+        // A re-issued code starts its own count
+        String reissued = otpService.issue(ORDER, List.of(SELLER));
+        assertThat(otpService.verify(ORDER, SELLER, reissued).outcome()).isEqualTo(Outcome.VERIFIED);
+    }
+
+    @Test
+    void orderLocksOutAcrossReissuedCodes() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+        for (int i = 0; i < 3; i++) {
+            otpService.verify(ORDER, SELLER, wrong(code));
+        }
+        code = otpService.issue(ORDER, List.of(SELLER));
+        assertThat(otpService.verify(ORDER, SELLER, wrong(code)))
+                .as("left: the smaller of the code's and the order's budget")
+                .isEqualTo(new Verification(Outcome.WRONG_CODE, 1));
+
+        Verification locked = otpService.verify(ORDER, SELLER, wrong(code));
+        assertThat(locked.outcome()).isEqualTo(Outcome.LOCKED);
+        assertThat(locked.detail()).as("seconds left").isGreaterThan(59 * 60);
+
+        String fresh = otpService.issue(ORDER, List.of(SELLER));
+        assertThat(otpService.verify(ORDER, SELLER, fresh).outcome()).isEqualTo(Outcome.LOCKED);
+    }
+
+    @Test
+    void nonSellerIsRejectedWithoutSpendingAttempts() {
+        String code = otpService.issue(ORDER, List.of(SELLER, 22L));
+
+        // ",2," must not match inside ",21,22,"
+        assertThat(otpService.verify(ORDER, 2L, code).outcome()).isEqualTo(Outcome.NOT_SELLER);
+        for (int i = 0; i < 5; i++) {
+            assertThat(otpService.verify(ORDER, 99L, wrong(code)).outcome()).isEqualTo(Outcome.NOT_SELLER);
+        }
+        assertThat(otpService.verify(ORDER, 22L, code).outcome()).isEqualTo(Outcome.VERIFIED);
+    }
+
+    @Test
+    void codeIsBoundToItsOrder() {
+        String code = otpService.issue(ORDER, List.of(SELLER));
+        otpService.issue(ORDER + 1, List.of(SELLER));
+
+        assertThat(otpService.verify(ORDER + 1, SELLER, code).outcome()).isEqualTo(Outcome.WRONG_CODE);
+    }
+
+    @Test
+    void shortSecretIsRefused() {
+        assertThatThrownBy(() -> new OtpService(redis, "too-short", 10, 60, 3, 5))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String wrong(String code) {
+        return code.equals("123456") ? "654321" : "123456";
+    }
+}
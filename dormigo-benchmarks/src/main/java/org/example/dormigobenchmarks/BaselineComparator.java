@@ -0,0 +1,101 @@
+package org.example.dormigobenchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * Compares a JMH JSON result (-rf json) against the committed baseline.
+ * Prints one line per benchmark and exits with 1 if anything got slower
+ * than the threshold (default 10%, override with -Dregression.threshold=0.15).
+ *
+ * Benchmarks missing from the baseline are reported as NEW and don't fail the run.
+ * Benchmarks in the baseline that the current run didn't produce are reported as
+ * MISSING and do fail it: a renamed, deleted or crashed benchmark must not pass
+ * silently. An empty baseline fails too, since nothing would be compared.
+ * */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json>");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("regression.threshold", "0.10"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(mapper.readTree(new File(args[1])));
+
+        if (baseline.isEmpty()) {
+            System.out.println("Baseline " + args[0] + " has no results, record one before comparing");
+            System.exit(1);
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+
+            if (before == null) {
+                System.out.printf("NEW         %-90s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            // Throughput: higher is better. Every other mode reports time: lower is better.
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double change = (score - baseScore) / baseScore;
+            double slowdown = higherIsBetter ? -change : change;
+
+            String verdict = slowdown > threshold ? "REGRESSION" : slowdown < -threshold ? "FASTER" : "OK";
+            if (slowdown > threshold) {
+                regressions++;
+            }
+            System.out.printf("%-11s %-90s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    verdict, entry.getKey(), baseScore, score, unit, change * 100);
+        }
+
+        int missing = 0;
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                JsonNode before = entry.getValue();
+                System.out.printf("MISSING     %-90s %12.3f %s%n", entry.getKey(),
+                        before.path("primaryMetric").path("score").asDouble(),
+                        before.path("primaryMetric").path("scoreUnit").asText());
+                missing++;
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+        }
+        if (missing > 0) {
+            System.out.printf("%d baseline benchmark(s) missing from this run%n", missing);
+        }
+        if (regressions > 0 || missing > 0) {
+            System.exit(1);
+        }
+    }
+
+    /* benchmark name + params, e.g. "...MapperBenchmark.cartToResponse {imagesPerProduct=5}" */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new TreeMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText();
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode() && !params.isEmpty()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.fields().forEachRemaining(param -> sorted.put(param.getKey(), param.getValue().asText()));
+                key += " " + sorted;
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+}
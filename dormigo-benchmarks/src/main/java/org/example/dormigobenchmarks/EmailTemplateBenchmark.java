@@ -0,0 +1,75 @@
+package org.example.dormigobenchmarks;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.example.dormigobackend.Entity.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Template lookup + rendering as done in EmailService.sendTemplatedEmail,
+ * with models built the same way EmailService builds them.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private Configuration configuration;
+    private Map<String, Object> orderConfirmationModel;
+    private Map<String, Object> otpModel;
+
+    @Setup
+    public void setUp() {
+        configuration = new Configuration(Configuration.VERSION_2_3_32);
+        configuration.setClassForTemplateLoading(EmailTemplateBenchmark.class, "/email-templates/");
+        configuration.setDefaultEncoding("UTF-8");
+
+        Order order = Fixtures.order(3);
+
+        orderConfirmationModel = new HashMap<>();
+        orderConfirmationModel.put("buyerName", order.getBuyer().getFirstName() + " " + order.getBuyer().getLastName());
+        orderConfirmationModel.put("orderNumber", order.getOrderNumber());
+        orderConfirmationModel.put("orderDate", order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a")));
+        orderConfirmationModel.put("totalAmount", order.getTotalAmount());
+        orderConfirmationModel.put("orderUrl", "http://localhost:3000/orders/" + order.getId());
+        orderConfirmationModel.put("items", order.getItems().stream().map(item -> {
+            Map<String, Object> itemModel = new HashMap<>();
+            itemModel.put("productTitle", item.getProduct().getTitle());
+            itemModel.put("quantity", item.getQuantity());
+            itemModel.put("price", item.getPriceAtPurchase());
+            itemModel.put("subtotal", item.getSubTotal());
+            itemModel.put("sellerName", item.getSeller().getFirstName() + " " + item.getSeller().getLastName());
+            return itemModel;
+        }).toList());
+
+        otpModel = new HashMap<>();
+        otpModel.put("buyerName", order.getBuyer().getFirstName() + " " + order.getBuyer().getLastName());
+        otpModel.put("orderNumber", order.getOrderNumber());
+        otpModel.put("otpCode", "482913");
+        otpModel.put("meetingLocation", order.getMeetingLocation());
+        otpModel.put("meetingTime", order.getMeetingTime());
+        otpModel.put("meetingNotes", order.getMeetingNotes());
+    }
+
+    @Benchmark
+    public String orderConfirmation() throws Exception {
+        Template template = configuration.getTemplate("order-confirmation.ftl");
+        return FreeMarkerTemplateUtils.processTemplateIntoString(template, orderConfirmationModel);
+    }
+
+    @Benchmark
+    public String otpEmail() throws Exception {
+        Template template = configuration.getTemplate("otp-email.ftl");
+        return FreeMarkerTemplateUtils.processTemplateIntoString(template, otpModel);
+    }
+}
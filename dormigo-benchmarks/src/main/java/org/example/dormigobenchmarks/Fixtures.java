@@ -0,0 +1,156 @@
+package org.example.dormigobenchmarks;
+
+import org.example.dormigobackend.Entity.*;
+import org.example.dormigobackend.Enums.OrderStatus;
+import org.example.dormigobackend.Enums.ProductCondition;
+import org.example.dormigobackend.Enums.Role;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Object graphs shaped like what the services load from Postgres,
+ * so the mappers and templates do the same amount of work as in production.
+ * */
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 10, 30);
+
+    private Fixtures() {
+    }
+
+    static Category category() {
+        return Category.builder()
+                .id(3L)
+                .name("Electronics")
+                .description("Laptops, phones, chargers and everything with a plug")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    static User user(long id, String firstName, String lastName) {
+        return User.builder()
+                .id(id)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@university.edu")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5w2yq7ZbJ8x6mFz8Qm3Jc8p5gkVQ6e")
+                .firstName(firstName)
+                .lastName(lastName)
+                .phoneNumber("+91 98765 43210")
+                .role(Role.STUDENT)
+                .isActive(true)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    static Product product(long id, User seller, Category category, int images) {
+        Product product = Product.builder()
+                .id(id)
+                .title("Dell Inspiron 15 laptop #" + id)
+                .description("Barely used, comes with charger and sleeve. Battery holds around six hours.")
+                .price(new BigDecimal("32999.00"))
+                .quantity(2)
+                .productCondition(ProductCondition.GOOD)
+                .category(category)
+                .seller(seller)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .isAvailable(true)
+                .productImages(new ArrayList<>())
+                .build();
+
+        for (int i = 0; i < images; i++) {
+            ProductImage image = new ProductImage();
+            image.setId(id * 10 + i);
+            image.setImageUrl("https://res.cloudinary.com/dormigo/image/upload/v1710400000/dormigo-products/" + id + "_" + i + ".jpg");
+            image.setFileName(id + "_" + i + ".jpg");
+            image.setFileType("image/jpeg");
+            image.setFileSize(482_113L);
+            image.setCloudinaryPublicId("dormigo-products/" + id + "_" + i);
+            image.setIsPrimary(i == 0);
+            image.setProduct(product);
+            image.setUploadedAt(NOW);
+            product.getProductImages().add(image);
+        }
+        return product;
+    }
+
+    static Cart cart(int items, int imagesPerProduct) {
+        User buyer = user(1L, "Asha", "Verma");
+        User seller = user(2L, "Rahul", "Nair");
+        Category category = category();
+
+        Cart cart = Cart.builder()
+                .id(1L)
+                .user(buyer)
+                .items(new ArrayList<>())
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+
+        for (int i = 0; i < items; i++) {
+            CartItems item = CartItems.builder()
+                    .id((long) i)
+                    .product(product(100L + i, seller, category, imagesPerProduct))
+                    .quantity(1 + i % 3)
+                    .addedAt(NOW)
+                    .build();
+            cart.addItem(item);
+        }
+        return cart;
+    }
+
+    static Order order(int items) {
+        User buyer = user(1L, "Asha", "Verma");
+        User seller = user(2L, "Rahul", "Nair");
+        Category category = category();
+
+        Order order = Order.builder()
+                .id(42L)
+                .orderNumber("ORD-20250314103000-417")
+                .buyer(buyer)
+                .items(new ArrayList<>())
+                .orderStatus(OrderStatus.OTP_GENERATED)
+                .meetingLocation("Library entrance, north campus")
+                .meetingTime(NOW.plusDays(1))
+                .meetingNotes("I'll be wearing a blue hoodie")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderItem> orderItems = order.getItems();
+        for (int i = 0; i < items; i++) {
+            Product product = product(100L + i, seller, category, 1);
+            int quantity = 1 + i % 2;
+            BigDecimal subTotal = product.getPrice().multiply(BigDecimal.valueOf(quantity));
+            orderItems.add(OrderItem.builder()
+                    .id((long) i)
+                    .order(order)
+                    .product(product)
+                    .seller(seller)
+                    .quantity(quantity)
+                    .priceAtPurchase(product.getPrice())
+                    .subTotal(subTotal)
+                    .build());
+            total = total.add(subTotal);
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    /* Sets an @Value field the way Spring would */
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.dormigobenchmarks;
+
+import org.example.dormigobackend.security.JwtTokenProvider;
+import org.example.dormigobackend.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Every authenticated request parses the token once (parseClaims) for its email,
+ * role and session; generate runs on login and on every refresh.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SESSION_ID = "Qp4x2cN9bVtE0kLr7sWmYg";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        Fixtures.setField(jwtTokenProvider, "jwtSecret",
+                "dormigo-super-secret-key-for-jwt-token-signing-must-be-at-least-256-bits-long-for-hs256-algorithm");
+        Fixtures.setField(jwtTokenProvider, "jwtExpiration", 86_400_000L);
+
+        UserPrincipal principal = UserPrincipal.create(Fixtures.user(1L, "Asha", "Verma"));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtTokenProvider.generateToken(authentication, SESSION_ID);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(authentication, SESSION_ID);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String emailFromToken() {
+        return jwtTokenProvider.generateEmailFromToken(token);
+    }
+
+    @Benchmark
+    public String roleFromToken() {
+        return jwtTokenProvider.getRole(token);
+    }
+
+    /* What JwtAuthenticationFilter did for each request before parsing once */
+    @Benchmark
+    public String validateThenParse() {
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.generateEmailFromToken(token) : null;
+    }
+
+    /* What JwtAuthenticationFilter does for each request */
+    @Benchmark
+    public Object parseClaims() {
+        return jwtTokenProvider.parseClaims(token);
+    }
+}
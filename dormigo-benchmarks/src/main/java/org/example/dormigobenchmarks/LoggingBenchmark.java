@@ -0,0 +1,199 @@
+package org.example.dormigobenchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import org.example.dormigobackend.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Request-thread cost of the log lines a login and an image upload used to emit
+ * (about ten INFO lines each) and the ones an add-to-cart still emits, under the
+ * old and new pipelines:
+ *
+ *   SYNC_PATTERN        pattern layout written to a file on the calling thread
+ *   ASYNC_JSON          logstash JSON behind an AsyncAppender
+ *   ASYNC_JSON_SAMPLED  as above with the sampling turbo filter, its rules read from
+ *                       the shipped logback-spring.xml (so only what production samples is)
+ *
+ * The same lines are replayed under each pipeline so only the pipeline changes.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    public enum Pipeline { SYNC_PATTERN, ASYNC_JSON, ASYNC_JSON_SAMPLED }
+
+    @Param({"SYNC_PATTERN", "ASYNC_JSON", "ASYNC_JSON_SAMPLED"})
+    public Pipeline pipeline;
+
+    private LoggerContext context;
+    private File logFile;
+    private Logger authLog;
+    private Logger uploadLog;
+    private Logger cartControllerLog;
+    private Logger cartLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("dormigo-logging-bench", ".log").toFile();
+
+        context = new LoggerContext();
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(pipeline == Pipeline.SYNC_PATTERN ? patternEncoder() : jsonEncoder());
+        file.start();
+
+        Appender<ILoggingEvent> root = file;
+        if (pipeline != Pipeline.SYNC_PATTERN) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            root = async;
+        }
+
+        if (pipeline == Pipeline.ASYNC_JSON_SAMPLED) {
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            shippedSamplingRules().forEach(sampling::addSample);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        rootLogger.addAppender(root);
+
+        authLog = context.getLogger("org.example.dormigobackend.service.AuthService");
+        uploadLog = context.getLogger("org.example.dormigobackend.service.CloudinaryService");
+        cartControllerLog = context.getLogger("org.example.dormigobackend.controller.CartController");
+        cartLog = context.getLogger("org.example.dormigobackend.service.CartService");
+
+        MDC.put("requestId", "3f2b9c1e-bench");
+        MDC.put("userId", "42");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MDC.clear();
+        context.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void login() {
+        String email = "buyer@dormigo.test";
+        authLog.info("🔐 Login attempt for email: {}", email);
+        authLog.info("🔍 Looking up user by email: {}", email);
+        authLog.info("✅ User found: id={}, active={}", 42L, true);
+        authLog.info("🔍 Verifying password for user {}", 42L);
+        authLog.info("✅ Password verified");
+        authLog.info("🔍 Loading roles for user {}", 42L);
+        authLog.info("✅ Role resolved: {}", "ROLE_BUYER");
+        authLog.info("🔐 Generating JWT for user {}", 42L);
+        authLog.info("✅ JWT generated, expires in {} ms", 86_400_000L);
+        authLog.info("✅ User {} logged in with role {}", 42L, "ROLE_BUYER");
+    }
+
+    @Benchmark
+    public void imageUpload() {
+        String name = "desk-lamp.jpg";
+        uploadLog.info("📤 ========================================");
+        uploadLog.info("📤 Uploading image to Cloudinary");
+        uploadLog.info("📤 File name: {}", name);
+        uploadLog.info("📤 File size: {} bytes", 348_211L);
+        uploadLog.info("📤 Content type: {}", "image/jpeg");
+        uploadLog.info("📤 Folder: {}", "dormigo/products");
+        uploadLog.info("📤 ========================================");
+        uploadLog.info("✅ Upload complete: public_id={}", "dormigo/products/abc123");
+        uploadLog.info("✅ Secure URL: {}", "https://res.cloudinary.com/demo/image/upload/abc123.jpg");
+        uploadLog.info("✅ ========================================");
+    }
+
+    @Benchmark
+    public void addToCart() {
+        cartControllerLog.info("addItems request received : {}", "AddToCartRequest(productId=17, quantity=1)");
+        cartLog.info("Adding to cart for the user with id : {} ", 42L);
+        cartLog.info("Creating a cart for the user with id : {} ", 42L);
+    }
+
+    /* The <sample> rules of the SamplingTurboFilter in the backend's logback-spring.xml */
+    private static List<String> shippedSamplingRules() {
+        try (InputStream config = LoggingBenchmark.class.getResourceAsStream("/logback-spring.xml")) {
+            if (config == null) {
+                throw new IllegalStateException("logback-spring.xml not on the classpath");
+            }
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(config);
+            NodeList filters = document.getElementsByTagName("turboFilter");
+            List<String> rules = new ArrayList<>();
+            for (int i = 0; i < filters.getLength(); i++) {
+                Element filter = (Element) filters.item(i);
+                if (!SamplingTurboFilter.class.getName().equals(filter.getAttribute("class"))) {
+                    continue;
+                }
+                NodeList samples = filter.getElementsByTagName("sample");
+                for (int j = 0; j < samples.getLength(); j++) {
+                    rules.add(samples.item(j).getTextContent().trim());
+                }
+            }
+            if (rules.isEmpty()) {
+                throw new IllegalStateException("logback-spring.xml has no sampling rules");
+            }
+            return rules;
+        } catch (IOException | ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("Could not read the sampling rules from logback-spring.xml", e);
+        }
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.start();
+        return encoder;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.dormigobenchmarks;
+
+import org.example.dormigobackend.Entity.Cart;
+import org.example.dormigobackend.Entity.Product;
+import org.example.dormigobackend.dto.response.CartResponse;
+import org.example.dormigobackend.dto.response.ProductResponse;
+import org.example.dormigobackend.mapper.CartMapper;
+import org.example.dormigobackend.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    /* Listings have one to five photos; a product page of 20 is the default page size */
+    @Param({"1", "5"})
+    public int imagesPerProduct;
+
+    private Product product;
+    private List<Product> page;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        var seller = Fixtures.user(2L, "Rahul", "Nair");
+        var category = Fixtures.category();
+        product = Fixtures.product(100L, seller, category, imagesPerProduct);
+        page = java.util.stream.LongStream.range(0, 20)
+                .mapToObj(id -> Fixtures.product(200L + id, seller, category, imagesPerProduct))
+                .toList();
+        cart = Fixtures.cart(8, imagesPerProduct);
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() {
+        return ProductMapper.toResponse(product);
+    }
+
+    @Benchmark
+    public List<ProductResponse> productPageToResponse() {
+        return page.stream().map(ProductMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public CartResponse cartToResponse() {
+        return CartMapper.toResponse(cart);
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.dormigobenchmarks;
+
+import org.example.dormigobackend.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderNumberBenchmark {
+
+    @Benchmark
+    public String generateOrderNumber() {
+        return OrderService.generateOrderNumber();
+    }
+
+    /* Checkout bursts: several buyers creating orders at once */
+    @Benchmark
+    @Threads(4)
+    public String generateOrderNumberContended() {
+        return OrderService.generateOrderNumber();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.dormigobenchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dormigobackend.cache.CacheValueSerializer;
+import org.example.dormigobackend.config.RedisConfig;
+import org.example.dormigobackend.dto.response.PageResponse;
+import org.example.dormigobackend.dto.response.ProductResponse;
+import org.example.dormigobackend.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/*
+ * The serializers the Redis cache manager can use, on the two value shapes
+ * cached under "products": a single product and a page of 20.
+ *
+ * JSON is the default-typed Jackson serializer; BINARY is CacheValueSerializer
+ * with compression out of reach, BINARY_LZ4 the same with the shipped 1 KiB threshold.
+ * Payload sizes are printed once per trial.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    private static final int LZ4_THRESHOLD = 1024;
+
+    public enum Format { JSON, BINARY, BINARY_LZ4 }
+
+    @Param
+    private Format format;
+
+    private RedisSerializer<Object> serializer;
+    private ProductResponse product;
+    private PageResponse<ProductResponse> page;
+    private byte[] productBytes;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper redisObjectMapper = new RedisConfig().redisObjectMapper();
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        serializer = switch (format) {
+            case JSON -> json;
+            case BINARY -> new CacheValueSerializer(json, Integer.MAX_VALUE);
+            case BINARY_LZ4 -> new CacheValueSerializer(json, LZ4_THRESHOLD);
+        };
+
+        var seller = Fixtures.user(2L, "Rahul", "Nair");
+        var category = Fixtures.category();
+        product = ProductMapper.toResponse(Fixtures.product(100L, seller, category, 3));
+        List<ProductResponse> content = LongStream.range(0, 20)
+                .mapToObj(id -> ProductMapper.toResponse(Fixtures.product(200L + id, seller, category, 3)))
+                .toList();
+        page = PageResponse.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(20)
+                .totalElements(137)
+                .totalPages(7)
+                .first(true)
+                .last(false)
+                .empty(false)
+                .build();
+
+        productBytes = serializer.serialize(product);
+        pageBytes = serializer.serialize(page);
+        System.out.printf("%n%s payload: product %d bytes, page %d bytes%n", format, productBytes.length, pageBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return serializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() {
+        return serializer.deserialize(productBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object deserializePage() {
+        return serializer.deserialize(pageBytes);
+    }
+}
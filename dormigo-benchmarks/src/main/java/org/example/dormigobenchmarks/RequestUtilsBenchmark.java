@@ -0,0 +1,55 @@
+package org.example.dormigobenchmarks;
+
+import org.example.dormigobackend.util.DeviceDetails;
+import org.example.dormigobackend.util.RequestUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/* Runs on every login (login notification email) */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestUtilsBenchmark {
+
+    /* Short names: JMH splits -p values on commas and every real User-Agent contains one */
+    private static final Map<String, String> USER_AGENTS = Map.of(
+            "chrome-windows", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36",
+            "safari-iphone", "Mozilla/5.0 (iPhone; CPU iPhone OS 17_3 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.3 Mobile/15E148 Safari/604.1",
+            "chrome-android", "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Mobile Safari/537.36",
+            "firefox-linux", "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:123.0) Gecko/20100101 Firefox/123.0"
+    );
+
+    @Param({"chrome-windows", "safari-iphone", "chrome-android", "firefox-linux"})
+    public String client;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("User-Agent", USER_AGENTS.get(client));
+        request.addHeader("X-Forwarded-For", "203.0.113.24, 10.0.0.5");
+        request.setRemoteAddr("10.0.0.5");
+    }
+
+    @Benchmark
+    public String deviceInfo() {
+        return RequestUtils.getDeviceInfo(request);
+    }
+
+    @Benchmark
+    public String clientIpAddress() {
+        return RequestUtils.getClientIpAddress(request);
+    }
+
+    @Benchmark
+    public DeviceDetails deviceDetails() {
+        return RequestUtils.getDeviceDetails(request);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * One virtual buyer. Each iteration browses, searches and opens a listing;
+ * a share of iterations then buys it: add to cart, checkout, pay, the seller
+ * arranges the meeting, the buyer reads the OTP from their email and the
+ * seller completes the order with it.
+ * */
+final class BuyerSession implements Runnable {
+
+    private static final int PAGE_SIZE = 20;
+    private static final Duration OTP_TIMEOUT = Duration.ofSeconds(30);
+    private static final String MEETING_LOCATION = "Main library entrance, north campus, next to the bike racks " +
+            "and the coffee cart. Ring me when you get there and I'll come down.";
+
+    private final Catalogue.Account buyer;
+    private final Catalogue catalogue;
+    private final DormigoClient client;
+    private final OtpMailbox mailbox;
+    private final LatencyRecorder recorder;
+    private final LoadTestConfig config;
+    private final long deadlineNanos;
+
+    BuyerSession(Catalogue.Account buyer, Catalogue catalogue, DormigoClient client, OtpMailbox mailbox,
+                 LatencyRecorder recorder, LoadTestConfig config, long deadlineNanos) {
+        this.buyer = buyer;
+        this.catalogue = catalogue;
+        this.client = client;
+        this.mailbox = mailbox;
+        this.recorder = recorder;
+        this.config = config;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            try {
+                browse(random);
+                Catalogue.Listing listing = catalogue.randomListing();
+                pause();
+                client.get("GET /api/products/public/{id}", "/api/products/public/" + listing.id(), null);
+                if (random.nextDouble() < config.checkoutRatio()) {
+                    pause();
+                    checkout(listing);
+                }
+            } catch (LoadTestException e) {
+                // Already counted against its endpoint; carry on like a user hitting retry
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void browse(ThreadLocalRandom random) throws InterruptedException {
+        client.get("GET /api/products/public/all",
+                "/api/products/public/all?page=" + random.nextInt(catalogue.pages(PAGE_SIZE)) + "&size=" + PAGE_SIZE, null);
+        pause();
+        String keyword = Catalogue.KEYWORDS.get(random.nextInt(Catalogue.KEYWORDS.size()));
+        client.get("GET /api/products/public/search",
+                "/api/products/public/search?query=" + DormigoClient.query(keyword)
+                        + "&page=0&size=" + PAGE_SIZE + "&sortBy=title&sortDir=ASC", null);
+    }
+
+    private void checkout(Catalogue.Listing listing) throws InterruptedException {
+        client.post("POST /api/cart/items", "/api/cart/items",
+                Map.of("productId", listing.id(), "quantity", 1), buyer.token());
+
+        JsonNode order = client.post("POST /api/orders", "/api/orders", Map.of(), buyer.token());
+        long orderId = order.get("orderId").asLong();
+        String orderNumber = order.get("orderNumber").asText();
+
+        client.post("POST /api/orders/{id}/simulate-payment", "/api/orders/" + orderId + "/simulate-payment",
+                Map.of(), buyer.token());
+
+        String sellerToken = listing.seller().token();
+        client.post("POST /api/orders/{id}/meeting", "/api/orders/" + orderId + "/meeting", Map.of(
+                "meetingLocation", MEETING_LOCATION,
+                "meetingNotes", "Blue hoodie",
+                "meetingTime", LocalDateTime.now().plusDays(1).withNano(0).toString()), sellerToken);
+
+        long waitStart = System.nanoTime();
+        String otp;
+        try {
+            otp = mailbox.awaitOtp(buyer.email(), orderNumber, OTP_TIMEOUT);
+        } catch (LoadTestException e) {
+            recorder.error("SMTP otp email delivery");
+            throw e;
+        }
+        recorder.record("SMTP otp email delivery", System.nanoTime() - waitStart);
+
+        client.post("POST /api/orders/{id}/verify-otp", "/api/orders/" + orderId + "/verify-otp",
+                Map.of("otpCode", otp), sellerToken);
+    }
+
+    private void pause() throws InterruptedException {
+        if (!config.thinkTime().isZero()) {
+            Thread.sleep(config.thinkTime());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.example.dormigobackend.Entity.Category;
+import org.example.dormigobackend.Enums.ProductCondition;
+import org.example.dormigobackend.Repository.CategoryRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Seeds what a campus marketplace looks like: a few categories, a handful of sellers,
+ * and listings with one photo each. Sellers and buyers go through the real
+ * signup/login endpoints; categories are admin-only so they go straight to the repository.
+ * */
+final class Catalogue {
+
+    static final String PASSWORD = "Load#Test2024";
+
+    static final List<String> KEYWORDS = List.of(
+            "laptop", "chair", "kettle", "textbook", "calculator", "lamp", "bicycle", "monitor", "jacket", "desk");
+    private static final List<String> ADJECTIVES = List.of(
+            "Used", "Barely used", "Vintage", "Compact", "Foldable", "Ergonomic", "Second-hand", "Like new");
+    private static final List<String> CATEGORIES = List.of(
+            "Electronics", "Books", "Furniture", "Kitchen", "Clothing", "Sports", "Stationery", "Bicycles");
+
+    record Account(long id, String email, String token) {
+    }
+
+    record Listing(long id, Account seller) {
+    }
+
+    private final List<Listing> listings;
+
+    private Catalogue(List<Listing> listings) {
+        this.listings = listings;
+    }
+
+    static Catalogue seed(ApplicationContext app, DormigoClient client, LoadTestConfig config) {
+        CategoryRepository categoryRepository = app.getBean(CategoryRepository.class);
+        List<Long> categoryIds = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            Category category = categoryRepository.findByName(name).orElseGet(() -> categoryRepository.save(
+                    Category.builder().name(name).description(name + " from students moving out").build()));
+            categoryIds.add(category.getId());
+        }
+
+        List<Account> sellers = new ArrayList<>();
+        for (int i = 0; i < config.sellers(); i++) {
+            sellers.add(register(client, "seller" + i));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] photo = new byte[48 * 1024];
+        random.nextBytes(photo);
+
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < config.products(); i++) {
+            Account seller = sellers.get(i % sellers.size());
+            String keyword = KEYWORDS.get(i % KEYWORDS.size());
+
+            Map<String, Object> product = new HashMap<>();
+            product.put("title", ADJECTIVES.get(random.nextInt(ADJECTIVES.size())) + " " + keyword + " #" + i);
+            product.put("description", "Listed by a student moving out of the dorms. Pick-up on campus, " +
+                    "works perfectly and has been looked after.");
+            product.put("price", BigDecimal.valueOf(random.nextInt(200, 40_000)));
+            // Large stock so a long run never sells out
+            product.put("quantity", 1000);
+            product.put("condition", ProductCondition.values()[random.nextInt(ProductCondition.values().length)].name());
+            product.put("categoryId", categoryIds.get(random.nextInt(categoryIds.size())));
+            product.put("isAvailable", true);
+
+            JsonNode created = client.post("POST /api/products", "/api/products", product, seller.token());
+            long productId = created.get("id").asLong();
+            client.postImage("POST /api/products/{id}/images", "/api/products/" + productId + "/images",
+                    photo, Map.of("isPrimary", "true"), seller.token());
+            listings.add(new Listing(productId, seller));
+        }
+        return new Catalogue(listings);
+    }
+
+    static Account register(DormigoClient client, String handle) {
+        String email = handle + "@loadtest.dormigo.local";
+        Map<String, Object> signup = new HashMap<>();
+        signup.put("email", email);
+        signup.put("password", PASSWORD);
+        signup.put("firstName", "Load");
+        signup.put("lastName", "Tester");
+        signup.put("phoneNumber", "9876543210");
+        client.post("POST /api/auth/signup", "/api/auth/signup", signup, null);
+
+        JsonNode auth = client.post("POST /api/auth/login", "/api/auth/login",
+                Map.of("email", email, "password", PASSWORD), null);
+        return new Account(auth.get("userId").asLong(), email, auth.get("token").asText());
+    }
+
+    Listing randomListing() {
+        return listings.get(ThreadLocalRandom.current().nextInt(listings.size()));
+    }
+
+    int pages(int pageSize) {
+        return Math.max(1, (listings.size() + pageSize - 1) / pageSize);
+    }
+}
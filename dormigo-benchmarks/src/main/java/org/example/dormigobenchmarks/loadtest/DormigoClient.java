@@ -0,0 +1,117 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+ * Thin JSON client over java.net.http. Every call is timed under an endpoint label
+ * ("GET /api/products/public/{id}") so ids don't explode the report.
+ * Non-2xx responses are counted as errors and thrown.
+ * */
+final class DormigoClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final LatencyRecorder recorder;
+
+    DormigoClient(String baseUrl, LatencyRecorder recorder) {
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.baseUrl = baseUrl;
+        this.mapper = new ObjectMapper();
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    JsonNode post(String endpoint, String path, Object body, String token) {
+        try {
+            return send(endpoint, request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build());
+        } catch (IOException e) {
+            throw new LoadTestException(endpoint + ": couldn't serialize request body", e);
+        }
+    }
+
+    JsonNode postImage(String endpoint, String path, byte[] image, Map<String, String> fields, String token) {
+        String boundary = "----dormigo" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        fields.forEach((name, value) -> body.writeBytes((
+                "--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" +
+                value + "\r\n").getBytes(StandardCharsets.UTF_8)));
+        body.writeBytes((
+                "--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"image\"; filename=\"listing.jpg\"\r\n" +
+                "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    static String query(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.error(endpoint);
+            throw new LoadTestException(endpoint + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTestException(endpoint + ": interrupted", e);
+        }
+        recorder.record(endpoint, System.nanoTime() - start);
+
+        if (response.statusCode() / 100 != 2) {
+            recorder.error(endpoint);
+            throw new LoadTestException(endpoint + " returned " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        try {
+            return response.body().length == 0 ? mapper.nullNode() : mapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new LoadTestException(endpoint + ": response is not JSON", e);
+        }
+    }
+}
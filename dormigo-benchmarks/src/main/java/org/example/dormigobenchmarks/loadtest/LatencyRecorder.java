@@ -0,0 +1,98 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Per-endpoint latency histograms (microseconds) and error counts */
+final class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long elapsedNanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_TRACKABLE_MICROS);
+        histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3))
+                .recordValue(micros);
+    }
+
+    void error(String endpoint) {
+        errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    /* Drops everything recorded during warmup */
+    void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    List<EndpointStats> snapshot(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        return histograms.entrySet().stream()
+                .map(entry -> {
+                    Histogram histogram = entry.getValue().copy();
+                    LongAdder failed = errors.get(entry.getKey());
+                    return new EndpointStats(
+                            entry.getKey(),
+                            histogram.getTotalCount(),
+                            failed == null ? 0 : failed.sum(),
+                            histogram.getTotalCount() / seconds,
+                            millis(histogram.getValueAtPercentile(50)),
+                            millis(histogram.getValueAtPercentile(90)),
+                            millis(histogram.getValueAtPercentile(99)),
+                            millis(histogram.getValueAtPercentile(99.9)),
+                            millis(histogram.getMaxValue()));
+                })
+                .toList();
+    }
+
+    void print(List<EndpointStats> stats) {
+        System.out.printf("%n%-45s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats s : stats) {
+            System.out.printf("%-45s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.endpoint(), s.requests(), s.errors(), s.throughput(),
+                    s.p50(), s.p90(), s.p99(), s.p999(), s.max());
+        }
+    }
+
+    void write(List<EndpointStats> stats, LoadTestConfig config, Path report) throws IOException {
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(report.toFile(), Map.of("config", config, "endpoints", stats));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    record EndpointStats(String endpoint,
+                         long requests,
+                         long errors,
+                         double throughput,
+                         double p50,
+                         double p90,
+                         double p99,
+                         double p999,
+                         double max) {
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/*
+ * Everything is a system property so runs can be scripted:
+ *
+ *   loadtest.users            concurrent virtual buyers                     (16)
+ *   loadtest.sellers          sellers owning the catalogue                  (4)
+ *   loadtest.products         products listed during setup                  (200)
+ *   loadtest.warmup           seconds of traffic discarded before measuring (15)
+ *   loadtest.duration         measured seconds                              (60)
+ *   loadtest.checkout-ratio   share of iterations that go through checkout  (0.2)
+ *   loadtest.think-time-ms    pause between a user's requests               (0)
+ *   loadtest.report           JSON report path          (target/loadtest-report.json)
+ * */
+record LoadTestConfig(int users,
+                      int sellers,
+                      int products,
+                      Duration warmup,
+                      Duration duration,
+                      double checkoutRatio,
+                      Duration thinkTime,
+                      Path report) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.users", 16),
+                Integer.getInteger("loadtest.sellers", 4),
+                Integer.getInteger("loadtest.products", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 15)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                Double.parseDouble(System.getProperty("loadtest.checkout-ratio", "0.2")),
+                Duration.ofMillis(Long.getLong("loadtest.think-time-ms", 0)),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")));
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.dormigobenchmarks.loadtest;
+
+class LoadTestException extends RuntimeException {
+
+    LoadTestException(String message) {
+        super(message);
+    }
+
+    LoadTestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
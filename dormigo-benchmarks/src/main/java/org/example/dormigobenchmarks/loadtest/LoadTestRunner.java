@@ -0,0 +1,84 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import org.example.dormigobackend.DormigoBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Boots the backend in-process with the "loadtest" profile against LocalStandIns,
+ * seeds a catalogue, then runs loadtest.users concurrent BuyerSessions.
+ * Warmup traffic is discarded; the measured window is printed per endpoint
+ * and written as JSON so runs can be compared.
+ * */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        try (LocalStandIns standIns = new LocalStandIns()) {
+            standIns.start();
+
+            // Command-line arguments outrank application.properties, default properties don't
+            String[] overrides = standIns.applicationProperties().entrySet().stream()
+                    .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                    .toArray(String[]::new);
+
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DormigoBackendApplication.class)
+                    .profiles("loadtest")
+                    .run(overrides)) {
+
+                int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                LatencyRecorder recorder = new LatencyRecorder();
+                DormigoClient client = new DormigoClient("http://127.0.0.1:" + port, recorder);
+
+                System.out.printf("Seeding %d products from %d sellers...%n", config.products(), config.sellers());
+                Catalogue catalogue = Catalogue.seed(app, client, config);
+                List<Catalogue.Account> buyers = new ArrayList<>();
+                for (int i = 0; i < config.users(); i++) {
+                    buyers.add(Catalogue.register(client, "buyer" + i));
+                }
+
+                run(config, catalogue, buyers, client, new OtpMailbox(standIns.mail()), recorder);
+            }
+        }
+    }
+
+    private static void run(LoadTestConfig config,
+                            Catalogue catalogue,
+                            List<Catalogue.Account> buyers,
+                            DormigoClient client,
+                            OtpMailbox mailbox,
+                            LatencyRecorder recorder) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + config.warmup().plus(config.duration()).toNanos();
+
+        ExecutorService users = Executors.newFixedThreadPool(config.users());
+        for (Catalogue.Account buyer : buyers) {
+            users.submit(new BuyerSession(buyer, catalogue, client, mailbox, recorder, config, deadline));
+        }
+
+        System.out.printf("Warming up for %ds with %d users...%n", config.warmup().toSeconds(), config.users());
+        Thread.sleep(config.warmup());
+        recorder.reset();
+        long measuredFrom = System.nanoTime();
+        System.out.printf("Measuring for %ds...%n", config.duration().toSeconds());
+
+        users.shutdown();
+        if (!users.awaitTermination(config.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+
+        Duration measured = Duration.ofNanos(System.nanoTime() - measuredFrom);
+        List<LatencyRecorder.EndpointStats> stats = recorder.snapshot(measured);
+        recorder.print(stats);
+        recorder.write(stats, config, config.report());
+        System.out.printf("%nReport written to %s%n", config.report().toAbsolutePath());
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/*
+ * Containerless replacements for everything the backend talks to:
+ * an embedded Postgres binary, an embedded Redis, GreenMail for SMTP
+ * and a WireMock stub answering the Cloudinary upload/destroy API.
+ * */
+final class LocalStandIns implements AutoCloseable {
+
+    private EmbeddedPostgres postgres;
+    private RedisServer redis;
+    private GreenMail greenMail;
+    private WireMockServer cloudinary;
+    private int redisPort;
+
+    void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+
+        redisPort = freePort();
+        redis = new RedisServer(redisPort);
+        redis.start();
+
+        greenMail = new GreenMail(new ServerSetup(freePort(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        cloudinary = new WireMockServer(options().dynamicPort().globalTemplating(true));
+        cloudinary.start();
+        stubCloudinary();
+    }
+
+    /* Overrides layered on top of the loadtest profile */
+    Map<String, Object> applicationProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.data.redis.host", "127.0.0.1");
+        properties.put("spring.data.redis.port", redisPort);
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", greenMail.getSmtp().getPort());
+        properties.put("cloudinary.upload-prefix", cloudinary.baseUrl());
+        properties.put("otp.hmac-secret", "loadtest-otp-hmac-" + UUID.randomUUID());
+        // -Dloadtest.replica-pools=true: read-only work goes through a second pool on the same instance
+        if (Boolean.getBoolean("loadtest.replica-pools")) {
+            properties.put("replica.datasource.urls", postgres.getJdbcUrl("postgres", "postgres"));
+        }
+        return properties;
+    }
+
+    GreenMail mail() {
+        return greenMail;
+    }
+
+    private void stubCloudinary() {
+        cloudinary.stubFor(post(urlPathMatching("/v1_1/[^/]+/image/upload"))
+                .willReturn(okJson("""
+                        {
+                          "public_id": "dormigo-products/{{randomValue type='UUID'}}",
+                          "secure_url": "https://res.cloudinary.com/loadtest/image/upload/v1/dormigo-products/{{randomValue type='UUID'}}.jpg",
+                          "url": "http://res.cloudinary.com/loadtest/image/upload/v1/dormigo-products/{{randomValue type='UUID'}}.jpg",
+                          "format": "jpg",
+                          "resource_type": "image",
+                          "bytes": 482113,
+                          "width": 1280,
+                          "height": 960
+                        }
+                        """)
+                        // Roughly what a real upload of a phone photo costs
+                        .withUniformRandomDelay(80, 250)));
+
+        cloudinary.stubFor(post(urlPathMatching("/v1_1/[^/]+/image/destroy"))
+                .willReturn(okJson("{\"result\": \"ok\"}").withUniformRandomDelay(30, 80)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (cloudinary != null) {
+            cloudinary.stop();
+        }
+        if (greenMail != null) {
+            greenMail.stop();
+        }
+        if (redis != null) {
+            redis.stop();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.dormigobenchmarks.loadtest;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import jakarta.mail.BodyPart;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Reads the OTP the backend mails to the buyer, the same way a buyer would.
+ * Looks only at the buyer's own inbox so polling stays cheap as mail piles up.
+ * */
+final class OtpMailbox {
+
+    private static final Pattern OTP = Pattern.compile("otp-code\"[^>]*>\\s*(\\d{6})\\s*<");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final GreenMail greenMail;
+
+    OtpMailbox(GreenMail greenMail) {
+        this.greenMail = greenMail;
+    }
+
+    String awaitOtp(String buyerEmail, String orderNumber, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            String otp = findOtp(buyerEmail, orderNumber);
+            if (otp != null) {
+                return otp;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new LoadTestException("No OTP email for order " + orderNumber + " within " + timeout);
+    }
+
+    private String findOtp(String buyerEmail, String orderNumber) {
+        GreenMailUser user = greenMail.getUserManager().getUserByEmail(buyerEmail);
+        if (user == null) {
+            return null;
+        }
+        try {
+            MailFolder inbox = greenMail.getManagers().getImapHostManager().getInbox(user);
+            List<StoredMessage> messages = inbox.getMessages();
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                MimeMessage message = messages.get(i).getMimeMessage();
+                String subject = message.getSubject();
+                if (subject != null && subject.contains("OTP") && subject.contains(orderNumber)) {
+                    Matcher matcher = OTP.matcher(text(message));
+                    if (matcher.find()) {
+                        return matcher.group(1);
+                    }
+                }
+            }
+            return null;
+        } catch (FolderException | MessagingException | IOException e) {
+            throw new LoadTestException("Couldn't read mailbox of " + buyerEmail, e);
+        }
+    }
+
+    /* Decoded text of every text/* part */
+    private static String text(Part part) throws MessagingException, IOException {
+        if (part.isMimeType("text/*")) {
+            return String.valueOf(part.getContent());
+        }
+        if (part.isMimeType("multipart/*")) {
+            Multipart multipart = (Multipart) part.getContent();
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart bodyPart = multipart.getBodyPart(i);
+                text.append(text(bodyPart));
+            }
+            return text.toString();
+        }
+        return "";
+    }
+}
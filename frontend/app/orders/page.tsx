@@ -1,6 +1,6 @@
 'use client';
 
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import Link from 'next/link';
 import Image from 'next/image';
 import Wrapper from '@/components/magicui/Wrapper';
@@ -19,7 +19,8 @@ import {
   setMeeting,
   verifyOtp,
   cancelOrder,
-  type OrderResponse,
+  subscribeToOrderEvents,
+  type OrderSummaryResponse,
 } from '@/lib/api/orders';
 import { ApiError } from '@/lib/api/client';
 
@@ -97,7 +98,7 @@ function StatusBadge({ status }: { status: string }) {
 }
 
 interface OrderCardProps {
-  order: OrderResponse;
+  order: OrderSummaryResponse;
   isSale: boolean;
   onRefresh: () => void;
 }
@@ -133,7 +134,7 @@ function OrderCard({ order, isSale, onRefresh }: OrderCardProps) {
 
   const firstItem = order.items?.[0];
   const img = placeholderImage;
-  const itemCount = order.items?.length ?? 0;
+  const itemCount = order.itemCount ?? order.items?.length ?? 0;
 
   return (
     <div className="bg-white rounded-2xl border border-gray-200 shadow-sm hover:border-gray-300 transition-all duration-200 overflow-hidden">
@@ -312,8 +313,8 @@ type Tab = 'purchases' | 'sales';
 
 export default function OrdersPage() {
   const [activeTab, setActiveTab] = useState<Tab>('purchases');
-  const [purchases, setPurchases] = useState<OrderResponse[]>([]);
-  const [sales, setSales] = useState<OrderResponse[]>([]);
+  const [purchases, setPurchases] = useState<OrderSummaryResponse[]>([]);
+  const [sales, setSales] = useState<OrderSummaryResponse[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [fetchError, setFetchError] = useState<string | null>(null);
 
@@ -338,6 +339,32 @@ export default function OrdersPage() {
     loadData();
   }, [loadData]);
 
+  // Live status changes from the server; an order not on screen yet means the lists are stale
+  const shownOrders = useRef<OrderSummaryResponse[]>([]);
+  useEffect(() => {
+    shownOrders.current = [...purchases, ...sales];
+  }, [purchases, sales]);
+
+  useEffect(() => {
+    return subscribeToOrderEvents({
+      onStatus: (update) => {
+        if (!shownOrders.current.some((order) => order.id === update.orderId)) {
+          loadData();
+          return;
+        }
+        const apply = (orders: OrderSummaryResponse[]) =>
+          orders.map((order) =>
+            order.id === update.orderId
+              ? { ...order, orderStatus: update.newStatus, updatedAt: update.occurredAt }
+              : order,
+          );
+        setPurchases(apply);
+        setSales(apply);
+      },
+      onResync: () => loadData(),
+    });
+  }, [loadData]);
+
   const displayed = activeTab === 'purchases' ? purchases : sales;
 
   return (
@@ -1,7 +1,9 @@
-import { apiFetch } from './client';
+import { apiFetch, clearTokens, getRefreshToken, storeTokens } from './client';
 
 export interface AuthResponse {
   token: string;
+  expiresIn: number;
+  refreshToken: string;
   userId: number;
   type: string;
   firstName: string;
@@ -21,11 +23,25 @@ export interface UserResponse {
 }
 
 export async function loginApi(email: string, password: string): Promise<AuthResponse> {
-  return apiFetch<AuthResponse>('/api/auth/login', {
+  const response = await apiFetch<AuthResponse>('/api/auth/login', {
     method: 'POST',
     body: JSON.stringify({ email, password }),
     skipAuth: true,
   });
+  storeTokens(response.token, response.refreshToken);
+  return response;
+}
+
+// Ends the session server-side; local tokens are cleared whatever the outcome
+export async function logoutApi(): Promise<void> {
+  const refreshToken = getRefreshToken();
+  clearTokens();
+  if (!refreshToken) return;
+  await apiFetch<void>('/api/auth/logout', {
+    method: 'POST',
+    body: JSON.stringify({ refreshToken }),
+    skipAuth: true,
+  });
 }
 
 export async function signupApi(
@@ -1,8 +1,74 @@
 const BASE_URL = process.env.NEXT_PUBLIC_API_URL ?? 'http://localhost:8080';
 
+const TOKEN_KEY = 'dormigo_token';
+const REFRESH_TOKEN_KEY = 'dormigo_refresh_token';
+
 function getToken(): string | null {
   if (typeof window === 'undefined') return null;
-  return localStorage.getItem('dormigo_token');
+  return localStorage.getItem(TOKEN_KEY);
+}
+
+export function getRefreshToken(): string | null {
+  if (typeof window === 'undefined') return null;
+  return localStorage.getItem(REFRESH_TOKEN_KEY);
+}
+
+export function storeTokens(token: string, refreshToken: string): void {
+  localStorage.setItem(TOKEN_KEY, token);
+  localStorage.setItem(REFRESH_TOKEN_KEY, refreshToken);
+}
+
+export function clearTokens(): void {
+  localStorage.removeItem(TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
+}
+
+// Access tokens are short-lived: on a 401, spend the refresh token once and retry.
+// Each refresh token can only be spent once and every tab shares it through localStorage,
+// so concurrent 401s in this tab share one refresh, and tabs take turns under a Web Lock.
+// A tab that gets the lock after another one refreshed just retries with the stored pair.
+let refreshInFlight: Promise<boolean> | null = null;
+
+function refreshAccessToken(rejectedToken: string | null): Promise<boolean> {
+  if (!refreshInFlight) {
+    refreshInFlight = withRefreshLock(() => refreshUnlessDone(rejectedToken)).finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+}
+
+function withRefreshLock(refresh: () => Promise<boolean>): Promise<boolean> {
+  if (typeof navigator !== 'undefined' && navigator.locks) {
+    return navigator.locks.request('dormigo-token-refresh', refresh);
+  }
+  return refresh();
+}
+
+async function refreshUnlessDone(rejectedToken: string | null): Promise<boolean> {
+  // Refreshed by another tab (or an earlier refresh here) since the request was sent
+  const current = getToken();
+  if (current && current !== rejectedToken) return true;
+  const refreshToken = getRefreshToken();
+  if (!refreshToken) return false;
+  try {
+    const response = await fetch(`${BASE_URL}/api/auth/refresh`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken }),
+    });
+    if (!response.ok) {
+      // Spent by a tab without Web Locks: the server refuses it without ending the session
+      if (getRefreshToken() !== refreshToken) return true;
+      clearTokens();
+      return false;
+    }
+    const body = (await response.json()) as { token: string; refreshToken: string };
+    storeTokens(body.token, body.refreshToken);
+    return true;
+  } catch {
+    return false;
+  }
 }
 
 export class ApiError extends Error {
@@ -19,13 +85,14 @@ export class ApiError extends Error {
 export async function apiFetch<T>(
   path: string,
   options: RequestInit & { skipAuth?: boolean } = {},
+  retried = false,
 ): Promise<T> {
   const { skipAuth, ...fetchOptions } = options;
 
   const headers = new Headers(fetchOptions.headers);
+  const token = skipAuth ? null : getToken();
 
   if (!skipAuth) {
-    const token = getToken();
     if (token) {
       headers.set('Authorization', `Bearer ${token}`);
     }
@@ -43,6 +110,10 @@ export async function apiFetch<T>(
     headers,
   });
 
+  if (response.status === 401 && !skipAuth && !retried && (await refreshAccessToken(token))) {
+    return apiFetch<T>(path, options, true);
+  }
+
   if (!response.ok) {
     let body: unknown;
     try {
@@ -64,3 +135,23 @@ export async function apiFetch<T>(
 
   return response.json() as Promise<T>;
 }
+
+// For streamed responses (the SSE order stream): same auth and refresh-on-401 as apiFetch,
+// but the Response comes back unread and a non-2xx status is left to the caller.
+export async function apiFetchResponse(
+  path: string,
+  options: RequestInit = {},
+  retried = false,
+): Promise<Response> {
+  const headers = new Headers(options.headers);
+  const token = getToken();
+  if (token) {
+    headers.set('Authorization', `Bearer ${token}`);
+  }
+
+  const response = await fetch(`${BASE_URL}${path}`, { ...options, headers });
+  if (response.status === 401 && !retried && (await refreshAccessToken(token))) {
+    return apiFetchResponse(path, options, true);
+  }
+  return response;
+}
@@ -1,4 +1,4 @@
-import { apiFetch } from './client';
+import { apiFetch, apiFetchResponse } from './client';
 import type { PagedResponse } from './products';
 
 export interface OrderItemResponse {
@@ -27,6 +27,24 @@ export interface OrderResponse {
   completedAt?: string;
 }
 
+// The order lists' shape; the full OrderResponse comes from getOrder
+export interface OrderSummaryResponse {
+  id: number;
+  orderNumber: string;
+  buyerId: number;
+  buyerName: string;
+  items: OrderItemResponse[];
+  itemCount: number;
+  totalPrice: number;
+  stripePaymentStatus?: string;
+  orderStatus: string;
+  meetingLocation?: string;
+  meetingDate?: string;
+  createdAt: string;
+  updatedAt?: string;
+  completedAt?: string;
+}
+
 export async function createOrder(): Promise<{ orderId: number; status: string }> {
   return apiFetch<{ orderId: number; status: string }>('/api/orders', {
     method: 'POST',
@@ -65,14 +83,14 @@ export async function cancelOrder(orderId: number): Promise<OrderResponse> {
   });
 }
 
-export async function getOrders(page = 0, size = 20): Promise<PagedResponse<OrderResponse>> {
-  return apiFetch<PagedResponse<OrderResponse>>(
+export async function getOrders(page = 0, size = 20): Promise<PagedResponse<OrderSummaryResponse>> {
+  return apiFetch<PagedResponse<OrderSummaryResponse>>(
     `/api/orders/get-orders?page=${page}&size=${size}`,
   );
 }
 
-export async function getSales(page = 0, size = 20): Promise<PagedResponse<OrderResponse>> {
-  return apiFetch<PagedResponse<OrderResponse>>(
+export async function getSales(page = 0, size = 20): Promise<PagedResponse<OrderSummaryResponse>> {
+  return apiFetch<PagedResponse<OrderSummaryResponse>>(
     `/api/orders/get-sales?page=${page}&size=${size}`,
   );
 }
@@ -80,3 +98,108 @@ export async function getSales(page = 0, size = 20): Promise<PagedResponse<Order
 export async function getOrder(orderId: number): Promise<OrderResponse> {
   return apiFetch<OrderResponse>(`/api/orders/${orderId}`);
 }
+
+// One "order-status" event on /api/orders/stream
+export interface OrderStatusUpdate {
+  orderId: number;
+  orderNumber: string;
+  previousStatus?: string;
+  newStatus: string;
+  occurredAt: string;
+}
+
+export interface OrderStreamHandlers {
+  onStatus: (update: OrderStatusUpdate) => void;
+  // Events were missed beyond what the server keeps: reload the lists
+  onResync: () => void;
+}
+
+// EventSource can't send the Bearer header, so the stream is read with fetch.
+// Reconnects with Last-Event-ID (the server replays what was missed) until the
+// returned function is called.
+export function subscribeToOrderEvents(handlers: OrderStreamHandlers): () => void {
+  const controller = new AbortController();
+  let lastEventId: string | null = null;
+  let retryMs = 3000;
+
+  const dispatch = (event: string, id: string | null, data: string) => {
+    if (id) lastEventId = id;
+    if (event === 'resync') {
+      handlers.onResync();
+    } else if (event === 'order-status' && data) {
+      handlers.onStatus(JSON.parse(data) as OrderStatusUpdate);
+    }
+  };
+
+  const readStream = async (response: Response) => {
+    const reader = response.body!.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    let event = 'message';
+    let id: string | null = null;
+    let data: string[] = [];
+
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += value;
+
+      let newline;
+      while ((newline = buffer.search(/\r\n|\r|\n/)) >= 0) {
+        const line = buffer.slice(0, newline);
+        buffer = buffer.slice(newline + (buffer.startsWith('\r\n', newline) ? 2 : 1));
+
+        if (line === '') {
+          if (data.length > 0 || event !== 'message') dispatch(event, id, data.join('\n'));
+          event = 'message';
+          id = null;
+          data = [];
+          continue;
+        }
+        if (line.startsWith(':')) continue;
+
+        const colon = line.indexOf(':');
+        const field = colon < 0 ? line : line.slice(0, colon);
+        const fieldValue = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+        if (field === 'event') event = fieldValue;
+        else if (field === 'data') data.push(fieldValue);
+        else if (field === 'id') id = fieldValue;
+        else if (field === 'retry' && /^\d+$/.test(fieldValue)) retryMs = Number(fieldValue);
+      }
+    }
+  };
+
+  const sleep = (ms: number) =>
+    new Promise<void>((resolve) => {
+      const timer = setTimeout(resolve, ms);
+      controller.signal.addEventListener('abort', () => {
+        clearTimeout(timer);
+        resolve();
+      });
+    });
+
+  (async () => {
+    while (!controller.signal.aborted) {
+      let waitMs = retryMs;
+      try {
+        const headers: Record<string, string> = { Accept: 'text/event-stream' };
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+        const response = await apiFetchResponse('/api/orders/stream', {
+          headers,
+          signal: controller.signal,
+        });
+        if (response.ok && response.body) {
+          await readStream(response);
+        } else if (response.status === 401 || response.status === 403) {
+          return; // signed out: the page's own requests will redirect
+        } else if (response.status === 429) {
+          waitMs = Number(response.headers.get('Retry-After') ?? 0) * 1000 || retryMs * 4;
+        }
+      } catch {
+        // Network error or abort; the loop condition sorts them out
+      }
+      await sleep(waitMs);
+    }
+  })();
+
+  return () => controller.abort();
+}
@@ -1,6 +1,7 @@
 'use client';
 
 import React, { createContext, useContext, useState, useEffect } from 'react';
+import { logoutApi } from '@/lib/api/auth';
 
 export interface User {
   id: string;
@@ -84,7 +85,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     try {
       setUser(null);
       localStorage.removeItem('dormigo_user');
-      localStorage.removeItem('dormigo_token');
+      logoutApi().catch((error) => console.error('Error ending session:', error));
       
       // Optional: Clear other app-specific data
       localStorage.removeItem('dormigo_preferences');